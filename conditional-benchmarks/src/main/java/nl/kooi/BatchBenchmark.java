@@ -0,0 +1,71 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    @Param({"8"})
+    private int ruleCount;
+
+    @Param({"1000000"})
+    private int size;
+
+    @Param({"1", "2", "4", "8"})
+    private int parallelism;
+
+    private ConditionalRules<Integer, String> rules;
+    private List<Integer> values;
+    private Integer[] valuesArray;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        rules = ConditionalRules.firstMatching(BenchmarkRules.actions(ruleCount));
+        values = IntStream.range(0, size)
+                .mapToObj(i -> i % (ruleCount + 1))
+                .toList();
+        valuesArray = values.toArray(Integer[]::new);
+        pool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<String> applyAllSequential() {
+        return rules.applyAll(values, value -> DEFAULT);
+    }
+
+    @Benchmark
+    public List<String> applyAllParallel() {
+        return pool.submit(() -> rules.applyAllParallel(values, value -> DEFAULT)).join();
+    }
+
+    @Benchmark
+    public String[] applyAllParallelArray() {
+        return pool.submit(() -> rules.applyAllParallel(valuesArray, value -> DEFAULT, String[]::new)).join();
+    }
+
+    @Benchmark
+    public List<String> parallelStream() {
+        return pool.submit(() -> values.parallelStream()
+                        .map(rules.asFunction(value -> DEFAULT))
+                        .toList())
+                .join();
+    }
+}
@@ -0,0 +1,328 @@
+package nl.kooi;
+
+import java.util.stream.IntStream;
+
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+
+final class BenchmarkRules {
+
+    static final String DEFAULT = "no-match";
+
+    static final String[] RESULTS = IntStream.range(0, 64)
+            .mapToObj(i -> "rule-" + i)
+            .toArray(String[]::new);
+
+    private BenchmarkRules() {
+    }
+
+    @SuppressWarnings("unchecked")
+    static ConditionalAction<Integer, String>[] actions(int count) {
+        return IntStream.range(0, count)
+                .mapToObj(BenchmarkRules::action)
+                .toArray(ConditionalAction[]::new);
+    }
+
+    static Integer valueFor(MatchPosition position, int ruleCount) {
+        return switch (position) {
+            case FRONT -> 0;
+            case MIDDLE -> ruleCount / 2;
+            case END -> ruleCount - 1;
+            case NONE -> -1;
+        };
+    }
+
+    static String ifElse(int ruleCount, Integer value) {
+        return switch (ruleCount) {
+            case 1 -> ifElse1(value);
+            case 8 -> ifElse8(value);
+            case 64 -> ifElse64(value);
+            default -> throw new IllegalArgumentException("Unsupported rule count: " + ruleCount);
+        };
+    }
+
+    static String patternSwitch(int ruleCount, Integer value) {
+        return switch (ruleCount) {
+            case 1 -> patternSwitch1(value);
+            case 8 -> patternSwitch8(value);
+            case 64 -> patternSwitch64(value);
+            default -> throw new IllegalArgumentException("Unsupported rule count: " + ruleCount);
+        };
+    }
+
+    private static ConditionalAction<Integer, String> action(int code) {
+        var result = RESULTS[code];
+
+        return applyIf(value -> value == code, value -> result);
+    }
+
+    static String ifElse1(Integer value) {
+        if (value == null) {
+            return DEFAULT;
+        }
+        int code = value;
+
+        if (code == 0) {
+            return RESULTS[0];
+        }
+
+        return DEFAULT;
+    }
+
+    static String ifElse8(Integer value) {
+        if (value == null) {
+            return DEFAULT;
+        }
+        int code = value;
+
+        if (code == 0) {
+            return RESULTS[0];
+        } else if (code == 1) {
+            return RESULTS[1];
+        } else if (code == 2) {
+            return RESULTS[2];
+        } else if (code == 3) {
+            return RESULTS[3];
+        } else if (code == 4) {
+            return RESULTS[4];
+        } else if (code == 5) {
+            return RESULTS[5];
+        } else if (code == 6) {
+            return RESULTS[6];
+        } else if (code == 7) {
+            return RESULTS[7];
+        }
+
+        return DEFAULT;
+    }
+
+    static String ifElse64(Integer value) {
+        if (value == null) {
+            return DEFAULT;
+        }
+        int code = value;
+
+        if (code == 0) {
+            return RESULTS[0];
+        } else if (code == 1) {
+            return RESULTS[1];
+        } else if (code == 2) {
+            return RESULTS[2];
+        } else if (code == 3) {
+            return RESULTS[3];
+        } else if (code == 4) {
+            return RESULTS[4];
+        } else if (code == 5) {
+            return RESULTS[5];
+        } else if (code == 6) {
+            return RESULTS[6];
+        } else if (code == 7) {
+            return RESULTS[7];
+        } else if (code == 8) {
+            return RESULTS[8];
+        } else if (code == 9) {
+            return RESULTS[9];
+        } else if (code == 10) {
+            return RESULTS[10];
+        } else if (code == 11) {
+            return RESULTS[11];
+        } else if (code == 12) {
+            return RESULTS[12];
+        } else if (code == 13) {
+            return RESULTS[13];
+        } else if (code == 14) {
+            return RESULTS[14];
+        } else if (code == 15) {
+            return RESULTS[15];
+        } else if (code == 16) {
+            return RESULTS[16];
+        } else if (code == 17) {
+            return RESULTS[17];
+        } else if (code == 18) {
+            return RESULTS[18];
+        } else if (code == 19) {
+            return RESULTS[19];
+        } else if (code == 20) {
+            return RESULTS[20];
+        } else if (code == 21) {
+            return RESULTS[21];
+        } else if (code == 22) {
+            return RESULTS[22];
+        } else if (code == 23) {
+            return RESULTS[23];
+        } else if (code == 24) {
+            return RESULTS[24];
+        } else if (code == 25) {
+            return RESULTS[25];
+        } else if (code == 26) {
+            return RESULTS[26];
+        } else if (code == 27) {
+            return RESULTS[27];
+        } else if (code == 28) {
+            return RESULTS[28];
+        } else if (code == 29) {
+            return RESULTS[29];
+        } else if (code == 30) {
+            return RESULTS[30];
+        } else if (code == 31) {
+            return RESULTS[31];
+        } else if (code == 32) {
+            return RESULTS[32];
+        } else if (code == 33) {
+            return RESULTS[33];
+        } else if (code == 34) {
+            return RESULTS[34];
+        } else if (code == 35) {
+            return RESULTS[35];
+        } else if (code == 36) {
+            return RESULTS[36];
+        } else if (code == 37) {
+            return RESULTS[37];
+        } else if (code == 38) {
+            return RESULTS[38];
+        } else if (code == 39) {
+            return RESULTS[39];
+        } else if (code == 40) {
+            return RESULTS[40];
+        } else if (code == 41) {
+            return RESULTS[41];
+        } else if (code == 42) {
+            return RESULTS[42];
+        } else if (code == 43) {
+            return RESULTS[43];
+        } else if (code == 44) {
+            return RESULTS[44];
+        } else if (code == 45) {
+            return RESULTS[45];
+        } else if (code == 46) {
+            return RESULTS[46];
+        } else if (code == 47) {
+            return RESULTS[47];
+        } else if (code == 48) {
+            return RESULTS[48];
+        } else if (code == 49) {
+            return RESULTS[49];
+        } else if (code == 50) {
+            return RESULTS[50];
+        } else if (code == 51) {
+            return RESULTS[51];
+        } else if (code == 52) {
+            return RESULTS[52];
+        } else if (code == 53) {
+            return RESULTS[53];
+        } else if (code == 54) {
+            return RESULTS[54];
+        } else if (code == 55) {
+            return RESULTS[55];
+        } else if (code == 56) {
+            return RESULTS[56];
+        } else if (code == 57) {
+            return RESULTS[57];
+        } else if (code == 58) {
+            return RESULTS[58];
+        } else if (code == 59) {
+            return RESULTS[59];
+        } else if (code == 60) {
+            return RESULTS[60];
+        } else if (code == 61) {
+            return RESULTS[61];
+        } else if (code == 62) {
+            return RESULTS[62];
+        } else if (code == 63) {
+            return RESULTS[63];
+        }
+
+        return DEFAULT;
+    }
+
+    static String patternSwitch1(Integer value) {
+        return switch (value) {
+            case Integer code when code == 0 -> RESULTS[0];
+            case null, default -> DEFAULT;
+        };
+    }
+
+    static String patternSwitch8(Integer value) {
+        return switch (value) {
+            case Integer code when code == 0 -> RESULTS[0];
+            case Integer code when code == 1 -> RESULTS[1];
+            case Integer code when code == 2 -> RESULTS[2];
+            case Integer code when code == 3 -> RESULTS[3];
+            case Integer code when code == 4 -> RESULTS[4];
+            case Integer code when code == 5 -> RESULTS[5];
+            case Integer code when code == 6 -> RESULTS[6];
+            case Integer code when code == 7 -> RESULTS[7];
+            case null, default -> DEFAULT;
+        };
+    }
+
+    static String patternSwitch64(Integer value) {
+        return switch (value) {
+            case Integer code when code == 0 -> RESULTS[0];
+            case Integer code when code == 1 -> RESULTS[1];
+            case Integer code when code == 2 -> RESULTS[2];
+            case Integer code when code == 3 -> RESULTS[3];
+            case Integer code when code == 4 -> RESULTS[4];
+            case Integer code when code == 5 -> RESULTS[5];
+            case Integer code when code == 6 -> RESULTS[6];
+            case Integer code when code == 7 -> RESULTS[7];
+            case Integer code when code == 8 -> RESULTS[8];
+            case Integer code when code == 9 -> RESULTS[9];
+            case Integer code when code == 10 -> RESULTS[10];
+            case Integer code when code == 11 -> RESULTS[11];
+            case Integer code when code == 12 -> RESULTS[12];
+            case Integer code when code == 13 -> RESULTS[13];
+            case Integer code when code == 14 -> RESULTS[14];
+            case Integer code when code == 15 -> RESULTS[15];
+            case Integer code when code == 16 -> RESULTS[16];
+            case Integer code when code == 17 -> RESULTS[17];
+            case Integer code when code == 18 -> RESULTS[18];
+            case Integer code when code == 19 -> RESULTS[19];
+            case Integer code when code == 20 -> RESULTS[20];
+            case Integer code when code == 21 -> RESULTS[21];
+            case Integer code when code == 22 -> RESULTS[22];
+            case Integer code when code == 23 -> RESULTS[23];
+            case Integer code when code == 24 -> RESULTS[24];
+            case Integer code when code == 25 -> RESULTS[25];
+            case Integer code when code == 26 -> RESULTS[26];
+            case Integer code when code == 27 -> RESULTS[27];
+            case Integer code when code == 28 -> RESULTS[28];
+            case Integer code when code == 29 -> RESULTS[29];
+            case Integer code when code == 30 -> RESULTS[30];
+            case Integer code when code == 31 -> RESULTS[31];
+            case Integer code when code == 32 -> RESULTS[32];
+            case Integer code when code == 33 -> RESULTS[33];
+            case Integer code when code == 34 -> RESULTS[34];
+            case Integer code when code == 35 -> RESULTS[35];
+            case Integer code when code == 36 -> RESULTS[36];
+            case Integer code when code == 37 -> RESULTS[37];
+            case Integer code when code == 38 -> RESULTS[38];
+            case Integer code when code == 39 -> RESULTS[39];
+            case Integer code when code == 40 -> RESULTS[40];
+            case Integer code when code == 41 -> RESULTS[41];
+            case Integer code when code == 42 -> RESULTS[42];
+            case Integer code when code == 43 -> RESULTS[43];
+            case Integer code when code == 44 -> RESULTS[44];
+            case Integer code when code == 45 -> RESULTS[45];
+            case Integer code when code == 46 -> RESULTS[46];
+            case Integer code when code == 47 -> RESULTS[47];
+            case Integer code when code == 48 -> RESULTS[48];
+            case Integer code when code == 49 -> RESULTS[49];
+            case Integer code when code == 50 -> RESULTS[50];
+            case Integer code when code == 51 -> RESULTS[51];
+            case Integer code when code == 52 -> RESULTS[52];
+            case Integer code when code == 53 -> RESULTS[53];
+            case Integer code when code == 54 -> RESULTS[54];
+            case Integer code when code == 55 -> RESULTS[55];
+            case Integer code when code == 56 -> RESULTS[56];
+            case Integer code when code == 57 -> RESULTS[57];
+            case Integer code when code == 58 -> RESULTS[58];
+            case Integer code when code == 59 -> RESULTS[59];
+            case Integer code when code == 60 -> RESULTS[60];
+            case Integer code when code == 61 -> RESULTS[61];
+            case Integer code when code == 62 -> RESULTS[62];
+            case Integer code when code == 63 -> RESULTS[63];
+            case null, default -> DEFAULT;
+        };
+    }
+}
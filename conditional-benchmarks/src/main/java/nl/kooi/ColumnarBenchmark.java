@@ -0,0 +1,76 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import static nl.kooi.IntConditional.IntConditionalAction;
+import static nl.kooi.IntConditional.applyIf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColumnarBenchmark {
+
+    @Param({"1000000"})
+    private int size;
+
+    private IntConditionalAction[] actions;
+    private IntColumnarRules columnarRules;
+    private int[] values;
+
+    @Setup
+    public void setUp() {
+        actions = new IntConditionalAction[]{
+                applyIf(i -> i < 100, i -> 1),
+                applyIf(i -> i < 200, i -> 2),
+                applyIf(i -> i < 400, i -> 3),
+                applyIf(i -> i < 800, i -> 4)
+        };
+        columnarRules = IntColumnarRules.firstMatching(actions);
+        values = new Random(42).ints(size, 0, 1_000).toArray();
+    }
+
+    @Benchmark
+    public int[] perElement() {
+        var results = new int[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            results[i] = IntConditional.of(values[i])
+                    .firstMatching(actions)
+                    .orElse(0);
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public int[] plainLoop() {
+        var results = new int[values.length];
+
+        for (int i = 0; i < values.length; i++) {
+            var value = values[i];
+            var result = 0;
+
+            for (var action : actions) {
+                if (action.condition().test(value)) {
+                    result = action.action().applyAsInt(value);
+                    break;
+                }
+            }
+
+            results[i] = result;
+        }
+
+        return results;
+    }
+
+    @Benchmark
+    public int[] columnar() {
+        return columnarRules.applyAll(values, 0);
+    }
+}
@@ -0,0 +1,56 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class FirstMatchingBenchmark {
+
+    @Param({"1", "8", "64"})
+    private int ruleCount;
+
+    @Param({"FRONT", "MIDDLE", "END", "NONE"})
+    private MatchPosition position;
+
+    private ConditionalAction<Integer, String>[] actions;
+    private ConditionalRules<Integer, String> rules;
+    private Integer value;
+
+    @Setup
+    public void setUp() {
+        actions = BenchmarkRules.actions(ruleCount);
+        rules = ConditionalRules.firstMatching(actions);
+        value = BenchmarkRules.valueFor(position, ruleCount);
+    }
+
+    @Benchmark
+    public String conditional() {
+        return Conditional.of(value)
+                .firstMatching(actions)
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public String compiledRules() {
+        return rules.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    public String ifElse() {
+        return BenchmarkRules.ifElse(ruleCount, value);
+    }
+
+    @Benchmark
+    public String patternSwitch() {
+        return BenchmarkRules.patternSwitch(ruleCount, value);
+    }
+}
@@ -0,0 +1,53 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class KeyDispatchBenchmark {
+
+    @Param({"8", "64", "200"})
+    private int ruleCount;
+
+    @Param({"FRONT", "END", "NONE"})
+    private MatchPosition position;
+
+    private ConditionalRules<Integer, String> scanningRules;
+    private ConditionalRules<Integer, String> keyedRules;
+    private Integer value;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        var code = Conditional.<Integer, Integer>keyOf(i -> i);
+
+        scanningRules = ConditionalRules.firstMatching(IntStream.range(0, ruleCount)
+                .mapToObj(key -> applyIf((Integer i) -> i.equals(key), i -> BenchmarkRules.RESULTS[key % 64]))
+                .toArray(ConditionalAction[]::new));
+        keyedRules = ConditionalRules.firstMatching(IntStream.range(0, ruleCount)
+                .mapToObj(key -> applyIf(code.is(key), i -> BenchmarkRules.RESULTS[key % 64]))
+                .toArray(ConditionalAction[]::new));
+        value = BenchmarkRules.valueFor(position, ruleCount);
+    }
+
+    @Benchmark
+    public String scanning() {
+        return scanningRules.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    public String keyed() {
+        return keyedRules.orElse(value, DEFAULT);
+    }
+}
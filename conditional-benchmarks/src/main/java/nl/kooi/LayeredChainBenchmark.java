@@ -0,0 +1,63 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class LayeredChainBenchmark {
+
+    @Param({"8", "64"})
+    private int ruleCount;
+
+    private ConditionalAction<Integer, String>[] baseActions;
+    private ConditionalAction<Integer, String> tenantAction;
+    private ConditionalAction<Integer, String> requestOverride;
+    private Conditional<Integer, String> base;
+    private Integer value;
+
+    @Setup
+    public void setUp() {
+        baseActions = BenchmarkRules.actions(ruleCount);
+        tenantAction = applyIf(i -> i > 1_000, i -> "tenant");
+        requestOverride = applyIf(i -> i < -1_000, i -> "override");
+        value = BenchmarkRules.valueFor(MatchPosition.END, ruleCount);
+        base = Conditional.of(value).firstMatching(baseActions);
+    }
+
+    @Benchmark
+    public String copied() {
+        var tenantActions = Arrays.copyOf(baseActions, baseActions.length + 1);
+        tenantActions[baseActions.length] = tenantAction;
+
+        var requestActions = new ConditionalAction[tenantActions.length + 1];
+        requestActions[0] = requestOverride;
+        System.arraycopy(tenantActions, 0, requestActions, 1, tenantActions.length);
+
+        return composeCopied(requestActions);
+    }
+
+    @Benchmark
+    public String shared() {
+        return base.orWhen(tenantAction)
+                .firstWhen(requestOverride)
+                .orElse(DEFAULT);
+    }
+
+    @SuppressWarnings("unchecked")
+    private String composeCopied(ConditionalAction[] actions) {
+        return Conditional.of(value)
+                .firstMatching((ConditionalAction<Integer, String>[]) actions)
+                .orElse(DEFAULT);
+    }
+}
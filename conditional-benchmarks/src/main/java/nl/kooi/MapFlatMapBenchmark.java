@@ -0,0 +1,90 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MapFlatMapBenchmark {
+
+    @Param({"8"})
+    private int ruleCount;
+
+    @Param({"1", "4"})
+    private int mapCount;
+
+    private ConditionalAction<Integer, String>[] actions;
+    private ConditionalAction<String, String> lengthRule;
+    private Integer value;
+
+    @Setup
+    public void setUp() {
+        actions = BenchmarkRules.actions(ruleCount);
+        lengthRule = applyIf(s -> s.length() > 5, String::toUpperCase);
+        value = ruleCount - 1;
+    }
+
+    @Benchmark
+    public String conditionalMap() {
+        var conditional = Conditional.of(value)
+                .firstMatching(actions);
+
+        for (int i = 0; i < mapCount; i++) {
+            conditional = conditional.map(String::trim);
+        }
+
+        return conditional.orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public String ifElseMap() {
+        var result = BenchmarkRules.ifElse(ruleCount, value);
+
+        if (result == DEFAULT) {
+            return DEFAULT;
+        }
+
+        for (int i = 0; i < mapCount; i++) {
+            result = result.trim();
+        }
+
+        return result;
+    }
+
+    @Benchmark
+    public String conditionalFlatMap() {
+        return Conditional.of(value)
+                .firstMatching(actions)
+                .flatMap(result -> Conditional.of(result).firstMatching(lengthRule))
+                .orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public String ifElseFlatMap() {
+        var result = BenchmarkRules.ifElse(ruleCount, value);
+
+        if (result == DEFAULT) {
+            return DEFAULT;
+        }
+
+        return result.length() > 5 ? result.toUpperCase() : DEFAULT;
+    }
+
+    @Benchmark
+    public String patternSwitchFlatMap() {
+        return switch (BenchmarkRules.patternSwitch(ruleCount, value)) {
+            case String result when result == DEFAULT -> DEFAULT;
+            case String result when result.length() > 5 -> result.toUpperCase();
+            default -> DEFAULT;
+        };
+    }
+}
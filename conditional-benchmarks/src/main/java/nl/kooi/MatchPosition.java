@@ -0,0 +1,5 @@
+package nl.kooi;
+
+public enum MatchPosition {
+    FRONT, MIDDLE, END, NONE
+}
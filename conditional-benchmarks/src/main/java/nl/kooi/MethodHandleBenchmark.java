@@ -0,0 +1,76 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.applyIf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class MethodHandleBenchmark {
+
+    private static final ConditionalRules<Integer, String> RULES = ConditionalRules.firstMatching(
+            applyIf((Integer i) -> i < 0, i -> "negative"),
+            applyIf((Integer i) -> i == 0, i -> "zero"),
+            applyIf((Integer i) -> i % 2 == 0, i -> "even"),
+            applyIf((Integer i) -> i % 3 == 0, i -> "multiple of three"),
+            applyIf((Integer i) -> i > 1_000, i -> "large"));
+
+    private static final MethodHandleRules<Integer, String> COMPILED = RULES.compileToMethodHandles();
+
+    @Param({"-1", "5", "1001"})
+    private Integer value;
+
+    @Setup(Level.Trial)
+    public void pollutePredicateProfile() {
+        var otherRules = new ConditionalRules[]{
+                ConditionalRules.firstMatching(applyIf((String s) -> s.isEmpty(), s -> 0)),
+                ConditionalRules.firstMatching(applyIf((String s) -> s.length() > 3, s -> 1)),
+                ConditionalRules.firstMatching(applyIf((Long l) -> l > 0, l -> 2)),
+                ConditionalRules.firstMatching(applyIf((Double d) -> d.isNaN(), d -> 3))
+        };
+        var inputs = new Object[]{"", "four", 1L, 1.0};
+
+        IntStream.range(0, 100_000).forEach(i -> {
+            @SuppressWarnings("unchecked")
+            var rules = (ConditionalRules<Object, Object>) otherRules[i % otherRules.length];
+            rules.orElse(inputs[i % inputs.length], null);
+        });
+    }
+
+    @Benchmark
+    public String conditionalRules() {
+        return RULES.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    public String methodHandleRules() {
+        return COMPILED.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    public String ifElse() {
+        int i = value;
+
+        if (i < 0) {
+            return "negative";
+        } else if (i == 0) {
+            return "zero";
+        } else if (i % 2 == 0) {
+            return "even";
+        } else if (i % 3 == 0) {
+            return "multiple of three";
+        } else if (i > 1_000) {
+            return "large";
+        }
+
+        return DEFAULT;
+    }
+}
@@ -0,0 +1,53 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class RangeDispatchBenchmark {
+
+    @Param({"8", "64", "200"})
+    private int ruleCount;
+
+    @Param({"FRONT", "END", "NONE"})
+    private MatchPosition position;
+
+    private ConditionalRules<Integer, String> scanningRules;
+    private ConditionalRules<Integer, String> rangedRules;
+    private Integer value;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        var tier = Conditional.<Integer, Integer>rangeOf(i -> i);
+
+        scanningRules = ConditionalRules.firstMatching(IntStream.range(0, ruleCount)
+                .mapToObj(limit -> applyIf((Integer i) -> i >= limit && i < limit + 1, i -> BenchmarkRules.RESULTS[limit % 64]))
+                .toArray(ConditionalAction[]::new));
+        rangedRules = ConditionalRules.firstMatching(IntStream.range(0, ruleCount)
+                .mapToObj(limit -> applyIf(tier.between(limit, limit + 1), i -> BenchmarkRules.RESULTS[limit % 64]))
+                .toArray(ConditionalAction[]::new));
+        value = BenchmarkRules.valueFor(position, ruleCount);
+    }
+
+    @Benchmark
+    public String scanning() {
+        return scanningRules.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    public String ranged() {
+        return rangedRules.orElse(value, DEFAULT);
+    }
+}
@@ -0,0 +1,61 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Group)
+public class SwapBenchmark {
+
+    private static final int RULE_COUNT = 8;
+
+    private ConditionalRules<Integer, String> fixedRules;
+    private ConditionalRules<Integer, String>[] generations;
+    private SwappableRules<Integer, String> swappableRules;
+    private Integer value;
+    private int generation;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        generations = IntStream.range(0, 2)
+                .mapToObj(offset -> ConditionalRules.firstMatching(IntStream.range(0, RULE_COUNT)
+                        .mapToObj(key -> applyIf((Integer i) -> i == key, i -> BenchmarkRules.RESULTS[key + offset]))
+                        .toArray(ConditionalAction[]::new)))
+                .toArray(ConditionalRules[]::new);
+        fixedRules = generations[0];
+        swappableRules = SwappableRules.of(generations[0]);
+        value = BenchmarkRules.valueFor(MatchPosition.MIDDLE, RULE_COUNT);
+    }
+
+    @Benchmark
+    @Group("fixed")
+    @GroupThreads(3)
+    public String fixedRead() {
+        return fixedRules.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    @Group("swapping")
+    @GroupThreads(3)
+    public String swappingRead() {
+        return swappableRules.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    @Group("swapping")
+    @GroupThreads(1)
+    public ConditionalRules<Integer, String> swap() {
+        return swappableRules.swap(generations[generation++ & 1]);
+    }
+}
@@ -0,0 +1,95 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TerminalOperationBenchmark {
+
+    private static final StacklessException NO_MATCH = new StacklessException("no match");
+
+    @Param({"8"})
+    private int ruleCount;
+
+    @Param({"END", "NONE"})
+    private MatchPosition position;
+
+    private Conditional<Integer, String> conditional;
+    private Integer value;
+
+    @Setup
+    public void setUp() {
+        value = BenchmarkRules.valueFor(position, ruleCount);
+        conditional = Conditional.of(value)
+                .firstMatching(BenchmarkRules.actions(ruleCount));
+    }
+
+    @Benchmark
+    public String orElse() {
+        return conditional.orElse(DEFAULT);
+    }
+
+    @Benchmark
+    public String orElseGet() {
+        return conditional.orElseGet(() -> DEFAULT);
+    }
+
+    @Benchmark
+    public String orElseThrow() {
+        try {
+            return conditional.orElseThrow(IllegalArgumentException::new);
+        } catch (IllegalArgumentException e) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public String orElseThrowReused() {
+        try {
+            return conditional.orElseThrowReused(NO_MATCH);
+        } catch (StacklessException e) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public String result() {
+        return switch (conditional.result()) {
+            case ConditionalResult.Matched<String> matched -> matched.value();
+            case ConditionalResult.NoMatch<String> noMatch -> DEFAULT;
+        };
+    }
+
+    @Benchmark
+    public String ifElse() {
+        return BenchmarkRules.ifElse(ruleCount, value);
+    }
+
+    @Benchmark
+    public String ifElseThrow() {
+        try {
+            var result = BenchmarkRules.ifElse(ruleCount, value);
+
+            if (result == DEFAULT) {
+                throw new IllegalArgumentException();
+            }
+
+            return result;
+        } catch (IllegalArgumentException e) {
+            return DEFAULT;
+        }
+    }
+
+    @Benchmark
+    public String patternSwitch() {
+        return BenchmarkRules.patternSwitch(ruleCount, value);
+    }
+}
@@ -0,0 +1,66 @@
+package nl.kooi;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static nl.kooi.BenchmarkRules.DEFAULT;
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.Conditional.applyIf;
+import static nl.kooi.Conditional.applyIfInstanceOf;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TypeDispatchBenchmark {
+
+    private static final Object[] VALUES = {
+            1, 1L, (short) 1, (byte) 1, 1.0, 1.0f, 'c', true,
+            "s", new StringBuilder(), BigInteger.ONE, BigDecimal.ONE,
+            LocalDate.EPOCH, LocalTime.NOON, Instant.EPOCH, Duration.ZERO, UUID.randomUUID()
+    };
+
+    @Param({"FRONT", "END"})
+    private MatchPosition position;
+
+    private ConditionalRules<Object, String> instanceOfRules;
+    private ConditionalRules<Object, String> typeRules;
+    private Object value;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        var types = IntStream.range(0, VALUES.length)
+                .mapToObj(i -> VALUES[i].getClass())
+                .toArray(Class<?>[]::new);
+
+        instanceOfRules = ConditionalRules.firstMatching(IntStream.range(0, types.length)
+                .mapToObj(i -> applyIf(types[i]::isInstance, o -> BenchmarkRules.RESULTS[i]))
+                .toArray(ConditionalAction[]::new));
+        typeRules = ConditionalRules.firstMatching(IntStream.range(0, types.length)
+                .mapToObj(i -> applyIfInstanceOf(types[i], o -> BenchmarkRules.RESULTS[i]))
+                .toArray(ConditionalAction[]::new));
+        value = position == MatchPosition.FRONT ? VALUES[0] : VALUES[types.length - 1];
+    }
+
+    @Benchmark
+    public String instanceOfLadder() {
+        return instanceOfRules.orElse(value, DEFAULT);
+    }
+
+    @Benchmark
+    public String typeDispatch() {
+        return typeRules.orElse(value, DEFAULT);
+    }
+}
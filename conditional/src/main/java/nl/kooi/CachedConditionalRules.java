@@ -0,0 +1,176 @@
+package nl.kooi;
+
+import java.util.LinkedHashMap;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+public final class CachedConditionalRules<S, T> {
+
+    private static final int SEGMENTS = 16;
+
+    private final ConditionalRules<S, T> rules;
+    private final Segment[] segments;
+    private final int maximumSize;
+    private final AtomicInteger size = new AtomicInteger();
+    private final long expireAfterWriteNanos;
+    private final LongSupplier nanoClock;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    CachedConditionalRules(ConditionalRules<S, T> rules,
+                           int maximumSize,
+                           long expireAfterWriteNanos,
+                           LongSupplier nanoClock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("maximumSize should be at least 1, but was " + maximumSize);
+        }
+
+        if (expireAfterWriteNanos <= 0) {
+            throw new IllegalArgumentException("expireAfterWrite should be positive");
+        }
+
+        this.rules = rules;
+        this.segments = IntStream.range(0, SEGMENTS)
+                .mapToObj(i -> new Segment())
+                .toArray(Segment[]::new);
+        this.maximumSize = maximumSize;
+        this.expireAfterWriteNanos = expireAfterWriteNanos;
+        this.nanoClock = nanoClock;
+    }
+
+    public T orElse(S value, T defaultValue) {
+        var result = evaluate(value);
+
+        return result == ConditionalRules.NO_RESULT ? defaultValue : cast(result);
+    }
+
+    public T orElseGet(S value, Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+
+        var result = evaluate(value);
+
+        return result == ConditionalRules.NO_RESULT ? supplier.get() : cast(result);
+    }
+
+    public <X extends Throwable> T orElseThrow(S value, Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var result = evaluate(value);
+
+        if (result == ConditionalRules.NO_RESULT) {
+            throw exceptionSupplier.get();
+        }
+
+        return cast(result);
+    }
+
+    public CacheStatistics statistics() {
+        return new CacheStatistics(hits.sum(), misses.sum(), evictions.sum());
+    }
+
+    private Object evaluate(S value) {
+        if (value == null) {
+            return ConditionalRules.NO_RESULT;
+        }
+
+        var segmentIndex = segmentIndex(value);
+        var segment = segments[segmentIndex];
+        var cachedResult = segment.get(value, nanoClock.getAsLong(), expireAfterWriteNanos, size);
+
+        if (cachedResult != null) {
+            hits.increment();
+            return cachedResult.result();
+        }
+
+        misses.increment();
+
+        var result = rules.evaluate(value);
+
+        if (segment.put(value, new CachedResult(result, nanoClock.getAsLong())) && size.incrementAndGet() > maximumSize) {
+            evictOverflow(segmentIndex);
+        }
+
+        return result;
+    }
+
+    /**
+     * Evicts least recently used values until the cache is back at its maximum size. The segments are bounded together
+     * rather than each on its own, so values whose hashes collide do not evict each other while the cache has room.
+     * Eviction starts at the segment that was written to, whose value just written is kept, and then moves on to the
+     * next segments, locking one segment at a time.
+     */
+    private void evictOverflow(int start) {
+        for (int i = 0; i < segments.length && size.get() > maximumSize; i++) {
+            var segment = segments[(start + i) & (segments.length - 1)];
+
+            while (size.get() > maximumSize && segment.evictEldest(i == 0 ? 1 : 0)) {
+                size.decrementAndGet();
+                evictions.increment();
+            }
+        }
+    }
+
+    private int segmentIndex(Object value) {
+        var hash = value.hashCode();
+
+        return (hash ^ (hash >>> 16)) & (segments.length - 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object result) {
+        return (T) result;
+    }
+
+    public record CacheStatistics(long hitCount, long missCount, long evictionCount) {
+
+        public double hitRate() {
+            var requestCount = hitCount + missCount;
+
+            return requestCount == 0 ? 1.0 : (double) hitCount / requestCount;
+        }
+    }
+
+    private record CachedResult(Object result, long writtenAt) {
+    }
+
+    private static final class Segment {
+
+        private final LinkedHashMap<Object, CachedResult> cachedResults = new LinkedHashMap<>(16, 0.75f, true);
+
+        synchronized CachedResult get(Object value, long now, long expireAfterWriteNanos, AtomicInteger size) {
+            var cachedResult = cachedResults.get(value);
+
+            if (cachedResult != null && now - cachedResult.writtenAt() >= expireAfterWriteNanos) {
+                cachedResults.remove(value);
+                size.decrementAndGet();
+                return null;
+            }
+
+            return cachedResult;
+        }
+
+        /**
+         * Returns whether {@code value} was added rather than replaced.
+         */
+        synchronized boolean put(Object value, CachedResult cachedResult) {
+            return cachedResults.put(value, cachedResult) == null;
+        }
+
+        synchronized boolean evictEldest(int keep) {
+            if (cachedResults.size() <= keep) {
+                return false;
+            }
+
+            var eldest = cachedResults.keySet().iterator();
+            eldest.next();
+            eldest.remove();
+
+            return true;
+        }
+    }
+}
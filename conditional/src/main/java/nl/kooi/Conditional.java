@@ -1,6 +1,6 @@
 package nl.kooi;
 
-import java.util.*;
+import java.util.Objects;
 import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
@@ -8,80 +8,186 @@ import java.util.function.Supplier;
 public final class Conditional<S, T> {
 
     private final S value;
-    private final List<ConditionalAction<S, T>> conditionalActions;
+    private final Conditional<?, ?> source;
+    private final Function<Object, ? extends Conditional<?, ?>> flatMapFunction;
+    private final ConditionalRules<S, T> rules;
 
 
+    Conditional(S value,
+                ConditionalRules<S, T> rules) {
+        this(value, null, null, rules);
+    }
+
     private Conditional(S value,
-                        List<ConditionalAction<S, T>> actions) {
+                        Conditional<?, ?> source,
+                        Function<Object, ? extends Conditional<?, ?>> flatMapFunction,
+                        ConditionalRules<S, T> rules) {
         this.value = value;
-        this.conditionalActions = actions;
+        this.source = source;
+        this.flatMapFunction = flatMapFunction;
+        this.rules = rules;
     }
 
     public static <S> Conditional<S, S> of(S value) {
-        return new Conditional<>(value, Collections.emptyList());
-    }
-
-    private static <S, T> Conditional<S, T> empty() {
-        return new Conditional<>(null, Collections.emptyList());
+        return new Conditional<>(value, ConditionalRules.empty());
     }
 
     public static <S, U> ConditionalAction<S, U> applyIf(Predicate<S> condition, Function<S, U> function) {
         return new ConditionalAction<>(condition, function);
     }
 
+    /**
+     * Returns an action that applies {@code function} to values that are an instance of {@code type}. Consecutive
+     * type rules are resolved once per concrete class by compiled rules, so dispatching over a large (sealed) type
+     * hierarchy costs a single lookup instead of one {@code instanceof} test per rule.
+     */
+    public static <S, U extends S, T> ConditionalAction<S, T> applyIfInstanceOf(Class<U> type, Function<? super U, ? extends T> function) {
+        Objects.requireNonNull(type);
+        Objects.requireNonNull(function);
+
+        return new ConditionalAction<>(new ConditionalKey.TypeCondition<>(type), value -> function.apply(type.cast(value)));
+    }
+
+    public static <S, K> ConditionalKey<S, K> keyOf(Function<S, K> keyExtractor) {
+        return new ConditionalKey<>(keyExtractor);
+    }
+
+    public static <S, K extends Comparable<? super K>> ConditionalRange<S, K> rangeOf(Function<S, K> keyExtractor) {
+        return new ConditionalRange<>(new ConditionalKey<>(keyExtractor));
+    }
+
     @SafeVarargs
     public final <U> Conditional<S, U> firstMatching(ConditionalAction<S, U>... actions) {
-        var actionsAsList = Arrays.stream(actions).toList();
-
-        return new Conditional<>(value, actionsAsList);
+        return new Conditional<>(value, source, flatMapFunction, ConditionalRules.scanning(actions));
     }
 
-    public <U> Conditional<S, U> map(Function<T, U> mapFunction) {
-        Objects.requireNonNull(mapFunction);
+    /**
+     * Adds rules that are evaluated when none of the current rules match. The current rules are shared rather than
+     * copied, so deriving many chains from a common base chain costs time and memory for the added rules only.
+     */
+    @SafeVarargs
+    public final Conditional<S, T> orWhen(ConditionalAction<S, T>... actions) {
+        return new Conditional<>(value, source, flatMapFunction, rules.orWhen(actions));
+    }
 
-        var updatedConditionalActions = conditionalActions
-                .stream()
-                .map(condAction -> condAction.and(mapFunction))
-                .toList();
+    /**
+     * Adds rules that are evaluated before the current rules, for example to override a shared base chain. Like
+     * {@link #orWhen}, the current rules are shared rather than copied.
+     */
+    @SafeVarargs
+    public final Conditional<S, T> firstWhen(ConditionalAction<S, T>... actions) {
+        return new Conditional<>(value, source, flatMapFunction, rules.firstWhen(actions));
+    }
 
-        return new Conditional<>(value, updatedConditionalActions);
+    public <U> Conditional<S, U> map(Function<T, U> mapFunction) {
+        return new Conditional<>(value, source, flatMapFunction, rules.map(mapFunction));
     }
 
+    @SuppressWarnings("unchecked")
     public <U> Conditional<T, U> flatMap(Function<T, Conditional<T, U>> flatMapFunction) {
-        return map(flatMapFunction)
-                .orElseGet(Conditional::empty);
+        Objects.requireNonNull(flatMapFunction);
+
+        return new Conditional<>(null, this, (Function<Object, Conditional<T, U>>) flatMapFunction,
+                ConditionalRules.inherited());
     }
 
+    @SuppressWarnings("unchecked")
     public T orElseGet(Supplier<? extends T> supplier) {
         Objects.requireNonNull(supplier);
 
-        return Optional.ofNullable(value)
-                .flatMap(this::findMatchingFunction)
-                .orElseGet(() -> obj -> supplier.get())
-                .apply(value);
+        var result = evaluate(rules);
+
+        return result == ConditionalRules.NO_RESULT ? supplier.get() : (T) result;
     }
 
+    @SuppressWarnings("unchecked")
     public T orElse(T defaultValue) {
-        return Optional.ofNullable(value)
-                .flatMap(this::findMatchingFunction)
-                .orElse(obj -> defaultValue)
-                .apply(value);
+        var result = evaluate(rules);
+
+        return result == ConditionalRules.NO_RESULT ? defaultValue : (T) result;
     }
 
+    @SuppressWarnings("unchecked")
     public <X extends Throwable> T orElseThrow(Supplier<? extends X>
                                                        exceptionSupplier) throws X {
         Objects.requireNonNull(exceptionSupplier);
 
-        return Optional.ofNullable(value)
-                .flatMap(this::findMatchingFunction)
-                .orElseThrow(exceptionSupplier).apply(value);
+        var result = evaluate(rules);
+
+        if (result == ConditionalRules.NO_RESULT) {
+            throw exceptionSupplier.get();
+        }
+
+        return (T) result;
     }
 
-    private Optional<Function<S, T>> findMatchingFunction(S value) {
-        return conditionalActions.stream()
-                .filter(entry -> entry.condition().test(value))
-                .findFirst()
-                .map(ConditionalAction::action);
+    /**
+     * Throws {@code exception} itself when no condition matches, instead of a new exception per call. Combined with a
+     * {@link StacklessException} the no-match path then neither allocates nor fills in a stack trace.
+     */
+    @SuppressWarnings("unchecked")
+    public <X extends Throwable> T orElseThrowReused(X exception) throws X {
+        Objects.requireNonNull(exception);
+
+        var result = evaluate(rules);
+
+        if (result == ConditionalRules.NO_RESULT) {
+            throw exception;
+        }
+
+        return (T) result;
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConditionalResult<T> result() {
+        var result = evaluate(rules);
+
+        return result == ConditionalRules.NO_RESULT
+                ? ConditionalResult.noMatch()
+                : new ConditionalResult.Matched<>((T) result);
+    }
+
+    /**
+     * Evaluates the chain of flatMapped conditionals in one loop: the sources are collected from this conditional down
+     * to the first one, and then evaluated from the first one outward, so the depth of the chain is not limited by the
+     * stack.
+     */
+    @SuppressWarnings("unchecked")
+    private Object evaluate(ConditionalRules<?, ?> rules) {
+        if (source == null) {
+            return ((ConditionalRules<Object, ?>) rules).evaluate(value);
+        }
+
+        var depth = 0;
+
+        for (Conditional<?, ?> current = this; current.source != null; current = current.source) {
+            depth++;
+        }
+
+        var stages = new Conditional<?, ?>[depth + 1];
+        Conditional<?, ?> current = this;
+
+        for (int i = 0; i <= depth; i++) {
+            stages[i] = current;
+            current = current.source;
+        }
+
+        var result = ((ConditionalRules<Object, ?>) stages[depth].rules).evaluate(stages[depth].value);
+
+        for (int i = depth - 1; i >= 0 && result != ConditionalRules.NO_RESULT; i--) {
+            var stage = stages[i];
+            var stageRules = i == 0 ? rules : stage.rules;
+            var produced = Objects.requireNonNull(stage.flatMapFunction.apply(result));
+
+            if (stageRules.inheritsActions()) {
+                result = produced.evaluate(produced.rules);
+                result = result == ConditionalRules.NO_RESULT ? result : stageRules.applyMapFunctions(result);
+            } else {
+                result = produced.evaluate(stageRules);
+            }
+        }
+
+        return result;
     }
 
     public record ConditionalAction<S, T>(Predicate<S> condition, Function<S, T> action) {
@@ -0,0 +1,69 @@
+package nl.kooi;
+
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+public record ConditionalKey<S, K>(Function<S, K> keyExtractor) {
+
+    private static final ConditionalKey<Object, Class<?>> CLASS = new ConditionalKey<>(Object::getClass);
+
+    public ConditionalKey {
+        Objects.requireNonNull(keyExtractor);
+    }
+
+    public Predicate<S> is(K key) {
+        return new KeyEquals<>(this, key);
+    }
+
+    public Predicate<S> matches(Predicate<K> predicate) {
+        return new KeyMatches<>(this, Objects.requireNonNull(predicate));
+    }
+
+    sealed interface KeyCondition<S, K> extends Predicate<S> permits KeyEquals, KeyMatches, TypeCondition, ConditionalRange.RangeCondition {
+
+        ConditionalKey<S, K> conditionalKey();
+
+        boolean testKey(K key);
+
+        @Override
+        default boolean test(S value) {
+            return testKey(conditionalKey().keyExtractor().apply(value));
+        }
+    }
+
+    record KeyEquals<S, K>(ConditionalKey<S, K> conditionalKey, K key) implements KeyCondition<S, K> {
+
+        @Override
+        public boolean testKey(K key) {
+            return Objects.equals(this.key, key);
+        }
+    }
+
+    record KeyMatches<S, K>(ConditionalKey<S, K> conditionalKey, Predicate<K> predicate) implements KeyCondition<S, K> {
+
+        @Override
+        public boolean testKey(K key) {
+            return predicate.test(key);
+        }
+    }
+
+    record TypeCondition<S>(Class<?> type) implements KeyCondition<S, Class<?>> {
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ConditionalKey<S, Class<?>> conditionalKey() {
+            return (ConditionalKey<S, Class<?>>) (ConditionalKey<?, ?>) CLASS;
+        }
+
+        @Override
+        public boolean testKey(Class<?> key) {
+            return type.isAssignableFrom(key);
+        }
+
+        @Override
+        public boolean test(S value) {
+            return type.isInstance(value);
+        }
+    }
+}
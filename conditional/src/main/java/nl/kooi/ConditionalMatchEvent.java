@@ -0,0 +1,20 @@
+package nl.kooi;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("nl.kooi.ConditionalMatch")
+@Label("Conditional Match")
+@Category("Conditional")
+@StackTrace(false)
+final class ConditionalMatchEvent extends Event {
+
+    @Label("Rules")
+    String rules;
+
+    @Label("Matched Rule")
+    int matchedRule;
+}
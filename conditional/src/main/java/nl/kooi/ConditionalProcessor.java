@@ -0,0 +1,450 @@
+package nl.kooi;
+
+import java.util.ArrayDeque;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Flow;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * A {@link Flow.Processor} that applies compiled rules to every item it receives.
+ * <p>
+ * Items are collected into batches of at most {@code batchSize} items. A batch is handed to a worker once it is full,
+ * or earlier when a worker is idle, so batches only grow while all workers are busy. Up to {@code parallelism} batches
+ * are evaluated at the same time, and results are always emitted in arrival order. The processor requests at most
+ * {@code batchSize * (parallelism + 1)} items from upstream that have not yet been emitted, so a slow subscriber
+ * stalls the publisher instead of filling an unbounded buffer.
+ * <p>
+ * Items that match no rule are either mapped by a default function and emitted to the subscriber, or routed to a
+ * separate no-match subscriber, which then gets its own demand. No-match items wait for that demand in a buffer of the
+ * same bounded size, so a slow no-match subscriber only holds up the subscriber once that buffer is full. The
+ * processor accepts one subscriber.
+ */
+public final class ConditionalProcessor<S, T> implements Flow.Processor<S, T> {
+
+    private static final Executor SAME_THREAD = Runnable::run;
+
+    private static final Flow.Subscription REJECTED = new Flow.Subscription() {
+        @Override
+        public void request(long n) {
+        }
+
+        @Override
+        public void cancel() {
+        }
+    };
+
+    private final ConditionalRules<S, T> rules;
+    private final Function<? super S, ? extends T> defaultFunction;
+    private final Flow.Subscriber<? super S> noMatchSubscriber;
+    private final int batchSize;
+    private final Executor executor;
+    private final int parallelism;
+    private final long capacity;
+
+    private final ConcurrentLinkedQueue<S> arrivals = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger workInProgress = new AtomicInteger();
+    private final AtomicLong demand = new AtomicLong();
+    private final AtomicLong noMatchDemand = new AtomicLong();
+    private final AtomicBoolean subscribed = new AtomicBoolean();
+    private volatile Flow.Subscription upstream;
+    private volatile Flow.Subscriber<? super T> downstream;
+    private volatile boolean upstreamDone;
+    private volatile Throwable error;
+    private volatile boolean cancelled;
+    private volatile boolean noMatchCancelled;
+
+    // Only accessed while draining.
+    private final ArrayDeque<Batch> batches = new ArrayDeque<>();
+    private final ArrayDeque<S> noMatches = new ArrayDeque<>();
+    private Batch collecting;
+    private long requested;
+    private long emitted;
+    private int running;
+    private boolean terminated;
+    private boolean completed;
+
+    ConditionalProcessor(ConditionalRules<S, T> rules,
+                         Function<? super S, ? extends T> defaultFunction,
+                         Flow.Subscriber<? super S> noMatchSubscriber,
+                         int batchSize,
+                         Executor executor,
+                         int parallelism) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize should be at least 1, but was " + batchSize);
+        }
+
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("parallelism should be at least 1, but was " + parallelism);
+        }
+
+        this.rules = rules;
+        this.defaultFunction = defaultFunction;
+        this.noMatchSubscriber = noMatchSubscriber;
+        this.batchSize = batchSize;
+        this.executor = executor;
+        this.parallelism = parallelism;
+        this.capacity = (long) batchSize * (parallelism + 1);
+    }
+
+    /**
+     * Returns an unsubscribed copy of this processor that evaluates items in batches of at most {@code batchSize}.
+     */
+    public ConditionalProcessor<S, T> batched(int batchSize) {
+        return new ConditionalProcessor<>(rules, defaultFunction, noMatchSubscriber, batchSize, executor, parallelism);
+    }
+
+    /**
+     * Returns an unsubscribed copy of this processor that evaluates up to {@code parallelism} batches at the same
+     * time on the given executor, while still emitting the results in arrival order.
+     */
+    public ConditionalProcessor<S, T> parallel(Executor executor, int parallelism) {
+        Objects.requireNonNull(executor);
+
+        return new ConditionalProcessor<>(rules, defaultFunction, noMatchSubscriber, batchSize, executor, parallelism);
+    }
+
+    @Override
+    public void subscribe(Flow.Subscriber<? super T> subscriber) {
+        Objects.requireNonNull(subscriber);
+
+        if (!subscribed.compareAndSet(false, true)) {
+            subscriber.onSubscribe(REJECTED);
+            subscriber.onError(new IllegalStateException("ConditionalProcessor allows only one subscriber"));
+            return;
+        }
+
+        if (noMatchSubscriber != null) {
+            noMatchSubscriber.onSubscribe(new Subscription(noMatchDemand));
+        }
+
+        subscriber.onSubscribe(new Subscription(demand));
+        downstream = subscriber;
+        drain();
+    }
+
+    @Override
+    public void onSubscribe(Flow.Subscription subscription) {
+        Objects.requireNonNull(subscription);
+
+        if (upstream != null) {
+            subscription.cancel();
+            return;
+        }
+
+        upstream = subscription;
+        drain();
+    }
+
+    @Override
+    public void onNext(S item) {
+        arrivals.offer(Objects.requireNonNull(item));
+        drain();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        Objects.requireNonNull(throwable);
+        upstreamDone = true;
+        error = throwable;
+        drain();
+    }
+
+    @Override
+    public void onComplete() {
+        upstreamDone = true;
+        drain();
+    }
+
+    private void drain() {
+        if (workInProgress.getAndIncrement() != 0) {
+            return;
+        }
+
+        var missed = 1;
+
+        do {
+            if (!terminated) {
+                drainOnce();
+            }
+
+            missed = workInProgress.addAndGet(-missed);
+        } while (missed != 0);
+    }
+
+    private void drainOnce() {
+        var subscriber = downstream;
+
+        if (subscriber == null) {
+            collectArrivals();
+            return;
+        }
+
+        if (error != null) {
+            fail(subscriber, error);
+            return;
+        }
+
+        if (cancelled && !completed) {
+            terminate();
+            return;
+        }
+
+        collectArrivals();
+        emitNoMatches();
+
+        if (emitCompletedBatches(subscriber)) {
+            return;
+        }
+
+        emitNoMatches();
+
+        if (upstreamDone && collecting == null && batches.isEmpty() && arrivals.isEmpty()) {
+            if (!completed) {
+                completed = true;
+                subscriber.onComplete();
+            }
+
+            if (noMatchSubscriber == null) {
+                terminate();
+            } else if (noMatches.isEmpty()) {
+                terminate();
+                noMatchSubscriber.onComplete();
+            }
+            return;
+        }
+
+        requestUpstream();
+    }
+
+    private void emitNoMatches() {
+        if (noMatchCancelled) {
+            noMatches.clear();
+            return;
+        }
+
+        while (!noMatches.isEmpty() && noMatchDemand.get() > 0) {
+            noMatchDemand.decrementAndGet();
+            noMatchSubscriber.onNext(noMatches.poll());
+        }
+    }
+
+    private void collectArrivals() {
+        S item;
+
+        while ((item = arrivals.poll()) != null) {
+            if (collecting == null) {
+                collecting = new Batch(batchSize);
+            }
+
+            collecting.items[collecting.size++] = item;
+
+            if (collecting.size == batchSize) {
+                dispatch();
+            }
+        }
+
+        if (collecting != null && (running < parallelism || upstreamDone)) {
+            dispatch();
+        }
+    }
+
+    private void dispatch() {
+        var batch = collecting;
+        collecting = null;
+        batches.offer(batch);
+
+        if (running < parallelism) {
+            start(batch);
+        }
+    }
+
+    private void start(Batch batch) {
+        running++;
+        batch.started = true;
+
+        try {
+            (executor == null ? SAME_THREAD : executor).execute(() -> {
+                evaluate(batch);
+                drain();
+            });
+        } catch (RuntimeException e) {
+            // A rejected batch never completes, so fail the processor in the next drain pass instead of waiting for it.
+            running--;
+            batch.started = false;
+            error = e;
+            drain();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void evaluate(Batch batch) {
+        try {
+            for (int i = 0; i < batch.size; i++) {
+                var item = (S) batch.items[i];
+                var result = rules.evaluate(item);
+
+                batch.results[i] = result == ConditionalRules.NO_RESULT && noMatchSubscriber == null
+                        ? defaultFunction.apply(item)
+                        : result;
+            }
+        } catch (RuntimeException | Error e) {
+            batch.failure = e;
+        }
+
+        batch.done = true;
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean emitCompletedBatches(Flow.Subscriber<? super T> subscriber) {
+        Batch batch;
+
+        while ((batch = batches.peek()) != null && batch.done) {
+            if (batch.failure != null) {
+                fail(subscriber, batch.failure);
+                return true;
+            }
+
+            while (batch.emitted < batch.size) {
+                var result = batch.results[batch.emitted];
+
+                if (result == ConditionalRules.NO_RESULT) {
+                    if (!noMatchCancelled) {
+                        if (noMatches.size() == capacity) {
+                            return false;
+                        }
+
+                        noMatches.offer((S) batch.items[batch.emitted]);
+                        emitNoMatches();
+                    }
+                } else {
+                    if (demand.get() == 0) {
+                        return false;
+                    }
+
+                    demand.decrementAndGet();
+                    subscriber.onNext((T) result);
+                }
+
+                batch.emitted++;
+                emitted++;
+
+                if (cancelled) {
+                    terminate();
+                    return true;
+                }
+            }
+
+            batches.poll();
+            running--;
+            startWaitingBatch();
+        }
+
+        return false;
+    }
+
+    private void startWaitingBatch() {
+        for (var batch : batches) {
+            if (!batch.started) {
+                start(batch);
+                return;
+            }
+        }
+    }
+
+    private void requestUpstream() {
+        var subscription = upstream;
+
+        if (subscription == null || upstreamDone) {
+            return;
+        }
+
+        var outstanding = requested - emitted;
+        var missing = capacity - outstanding;
+
+        if (missing >= batchSize) {
+            var chunk = missing - missing % batchSize;
+            requested += chunk;
+            subscription.request(chunk);
+        }
+    }
+
+    private void fail(Flow.Subscriber<? super T> subscriber, Throwable failure) {
+        terminate();
+
+        if (!upstreamDone && upstream != null) {
+            upstream.cancel();
+        }
+
+        if (!completed) {
+            subscriber.onError(failure);
+        }
+
+        if (noMatchSubscriber != null) {
+            noMatchSubscriber.onError(failure);
+        }
+    }
+
+    private void terminate() {
+        terminated = true;
+        arrivals.clear();
+        batches.clear();
+        noMatches.clear();
+        collecting = null;
+
+        if (cancelled && upstream != null) {
+            upstream.cancel();
+        }
+    }
+
+    private static final class Batch {
+
+        private final Object[] items;
+        private final Object[] results;
+        private int size;
+        private int emitted;
+        private boolean started;
+        private volatile boolean done;
+        private Throwable failure;
+
+        private Batch(int capacity) {
+            this.items = new Object[capacity];
+            this.results = new Object[capacity];
+        }
+    }
+
+    private final class Subscription implements Flow.Subscription {
+
+        private final AtomicLong subscriberDemand;
+
+        private Subscription(AtomicLong subscriberDemand) {
+            this.subscriberDemand = subscriberDemand;
+        }
+
+        @Override
+        public void request(long n) {
+            if (n <= 0) {
+                error = new IllegalArgumentException("non-positive subscription request: " + n);
+                drain();
+                return;
+            }
+
+            subscriberDemand.accumulateAndGet(n, (current, added) -> current + added < 0 ? Long.MAX_VALUE : current + added);
+            drain();
+        }
+
+        @Override
+        public void cancel() {
+            if (subscriberDemand == noMatchDemand) {
+                noMatchCancelled = true;
+            } else {
+                cancelled = true;
+            }
+            drain();
+        }
+    }
+}
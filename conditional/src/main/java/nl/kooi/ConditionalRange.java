@@ -0,0 +1,78 @@
+package nl.kooi;
+
+import java.util.Objects;
+import java.util.function.Predicate;
+
+import static nl.kooi.ConditionalKey.KeyCondition;
+
+public record ConditionalRange<S, K extends Comparable<? super K>>(ConditionalKey<S, K> conditionalKey) {
+
+    public ConditionalRange {
+        Objects.requireNonNull(conditionalKey);
+    }
+
+    public Predicate<S> lessThan(K upper) {
+        return new RangeCondition<>(conditionalKey, null, false, Objects.requireNonNull(upper), false);
+    }
+
+    public Predicate<S> atMost(K upper) {
+        return new RangeCondition<>(conditionalKey, null, false, Objects.requireNonNull(upper), true);
+    }
+
+    public Predicate<S> greaterThan(K lower) {
+        return new RangeCondition<>(conditionalKey, Objects.requireNonNull(lower), false, null, false);
+    }
+
+    public Predicate<S> atLeast(K lower) {
+        return new RangeCondition<>(conditionalKey, Objects.requireNonNull(lower), true, null, false);
+    }
+
+    public Predicate<S> between(K lowerInclusive, K upperExclusive) {
+        return between(lowerInclusive, true, upperExclusive, false);
+    }
+
+    public Predicate<S> between(K lower, boolean lowerInclusive, K upper, boolean upperInclusive) {
+        Objects.requireNonNull(lower);
+        Objects.requireNonNull(upper);
+
+        if (lower.compareTo(upper) > 0) {
+            throw new IllegalArgumentException("Lower bound " + lower + " is greater than upper bound " + upper);
+        }
+
+        return new RangeCondition<>(conditionalKey, lower, lowerInclusive, upper, upperInclusive);
+    }
+
+    /**
+     * A range over the key of a {@link ConditionalKey}. A {@code null} bound means the range is unbounded on that
+     * side; a {@code null} key is never in range.
+     */
+    record RangeCondition<S, K extends Comparable<? super K>>(ConditionalKey<S, K> conditionalKey,
+                                                                 K lower,
+                                                                 boolean lowerInclusive,
+                                                                 K upper,
+                                                                 boolean upperInclusive) implements KeyCondition<S, K> {
+
+        @Override
+        public boolean testKey(K key) {
+            if (key == null) {
+                return false;
+            }
+
+            if (lower != null) {
+                var comparison = key.compareTo(lower);
+
+                if (comparison < 0 || comparison == 0 && !lowerInclusive) {
+                    return false;
+                }
+            }
+
+            if (upper != null) {
+                var comparison = key.compareTo(upper);
+
+                return comparison < 0 || comparison == 0 && upperInclusive;
+            }
+
+            return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package nl.kooi;
+
+/**
+ * The outcome of evaluating rules: either the {@link Matched} result of the first matching rule, or {@link NoMatch}.
+ * A no-match is a shared instance, so the no-match path does not allocate.
+ */
+public sealed interface ConditionalResult<T> permits ConditionalResult.Matched, ConditionalResult.NoMatch {
+
+    @SuppressWarnings("unchecked")
+    static <T> ConditionalResult<T> noMatch() {
+        return (ConditionalResult<T>) NoMatch.INSTANCE;
+    }
+
+    record Matched<T>(T value) implements ConditionalResult<T> {
+    }
+
+    final class NoMatch<T> implements ConditionalResult<T> {
+
+        private static final NoMatch<?> INSTANCE = new NoMatch<>();
+
+        private NoMatch() {
+        }
+
+        @Override
+        public String toString() {
+            return "NoMatch";
+        }
+    }
+}
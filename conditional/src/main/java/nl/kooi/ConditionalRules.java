@@ -0,0 +1,568 @@
+package nl.kooi;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.RandomAccess;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Flow;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+import java.util.stream.Collector;
+import java.util.stream.Collectors;
+
+import static nl.kooi.Conditional.ConditionalAction;
+
+public final class ConditionalRules<S, T> {
+
+    static final Object NO_RESULT = new Object();
+
+    static final int NO_MATCH = -1;
+
+    @SuppressWarnings("rawtypes")
+    private static final Function[] NO_MAP_FUNCTIONS = new Function[0];
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final ConditionalRules EMPTY = new ConditionalRules<>(new ConditionalAction[0], null, null, null, null, NO_MAP_FUNCTIONS, null, null);
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private static final ConditionalRules INHERITED = new ConditionalRules<>(null, null, null, null, null, NO_MAP_FUNCTIONS, null, null);
+
+    private final ConditionalAction<S, ?>[] conditionalActions;
+    private final KeyIndex[] keyIndices;
+    private final FeaturePlan featurePlan;
+    private final HitOrder hitOrder;
+    private final RuleMetrics metrics;
+    private final Function<Object, Object>[] mapFunctions;
+    private final ConditionalRules<S, ?> before;
+    private final ConditionalRules<S, ?> after;
+
+    private ConditionalRules(ConditionalAction<S, ?>[] actions,
+                             KeyIndex[] keyIndices,
+                             FeaturePlan featurePlan,
+                             HitOrder hitOrder,
+                             RuleMetrics metrics,
+                             Function<Object, Object>[] mapFunctions,
+                             ConditionalRules<S, ?> before,
+                             ConditionalRules<S, ?> after) {
+        this.conditionalActions = actions;
+        this.keyIndices = keyIndices;
+        this.featurePlan = featurePlan;
+        this.hitOrder = hitOrder;
+        this.metrics = metrics;
+        this.mapFunctions = mapFunctions;
+        this.before = before;
+        this.after = after;
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    public static <S, T> ConditionalRules<S, T> firstMatching(ConditionalAction<S, T>... actions) {
+        var actionsCopy = copyOf(actions);
+
+        var keyIndices = KeyIndex.compile(actionsCopy);
+
+        return new ConditionalRules<>(actionsCopy, keyIndices, FeaturePlan.compile(actionsCopy, keyIndices),
+                null, null, NO_MAP_FUNCTIONS, null, null);
+    }
+
+    @SafeVarargs
+    @SuppressWarnings("unchecked")
+    static <S, T> ConditionalRules<S, T> scanning(ConditionalAction<S, T>... actions) {
+        return new ConditionalRules<>(copyOf(actions), null, null, null, null, NO_MAP_FUNCTIONS, null, null);
+    }
+
+    private static <S, T> ConditionalAction<S, T>[] copyOf(ConditionalAction<S, T>[] actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return actionsCopy;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S, T> ConditionalRules<S, T> empty() {
+        return EMPTY;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <S, T> ConditionalRules<S, T> inherited() {
+        return INHERITED;
+    }
+
+    @SuppressWarnings("unchecked")
+    public <U> ConditionalRules<S, U> map(Function<T, U> mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = (Function<Object, Object>) mapFunction;
+
+        return new ConditionalRules<>(conditionalActions, keyIndices, featurePlan, hitOrder, metrics, updatedMapFunctions,
+                before, after);
+    }
+
+    /**
+     * Returns rules that count which rule matches and periodically move the most frequently matching rules to the
+     * front. Only use this for rules that are mutually exclusive and free of side effects, as the evaluation order
+     * is no longer the declaration order.
+     */
+    public ConditionalRules<S, T> reorderedByHits() {
+        return new ConditionalRules<>(conditionalActions, keyIndices, featurePlan,
+                HitOrder.of(conditionalActions.length, keyIndices), metrics, mapFunctions, before, after);
+    }
+
+    /**
+     * Returns rules that record per-rule hits, no-matches and predicate and action latencies in
+     * {@link #metrics()} and emit a {@code nl.kooi.ConditionalMatch} Flight Recorder event per evaluation.
+     */
+    public ConditionalRules<S, T> instrumented(String name) {
+        Objects.requireNonNull(name);
+
+        return new ConditionalRules<>(conditionalActions, keyIndices, featurePlan, hitOrder,
+                new RuleMetrics(name, conditionalActions.length), mapFunctions, before, after);
+    }
+
+    public CachedConditionalRules<S, T> cached(int maximumSize) {
+        return new CachedConditionalRules<>(this, maximumSize, Long.MAX_VALUE, System::nanoTime);
+    }
+
+    public CachedConditionalRules<S, T> cached(int maximumSize, Duration expireAfterWrite) {
+        return new CachedConditionalRules<>(this, maximumSize, expireAfterWrite.toNanos(), System::nanoTime);
+    }
+
+    public MethodHandleRules<S, T> compileToMethodHandles() {
+        var conditions = new Predicate<?>[conditionalActions.length];
+        var actions = new Function<?, ?>[conditionalActions.length];
+
+        for (int i = 0; i < conditionalActions.length; i++) {
+            conditions[i] = conditionalActions[i].condition();
+            actions[i] = conditionalActions[i].action();
+        }
+
+        return MethodHandleRules.compile(conditions, actions, mapFunctions);
+    }
+
+    public Optional<RuleMetrics> metrics() {
+        return Optional.ofNullable(metrics);
+    }
+
+    public Conditional<S, T> of(S value) {
+        return new Conditional<>(value, this);
+    }
+
+    public T orElse(S value, T defaultValue) {
+        var index = findMatchingIndex(value);
+
+        return index == NO_MATCH ? defaultValue : apply(index, value);
+    }
+
+    public T orElseGet(S value, Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+
+        var index = findMatchingIndex(value);
+
+        return index == NO_MATCH ? supplier.get() : apply(index, value);
+    }
+
+    public <X extends Throwable> T orElseThrow(S value, Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var index = findMatchingIndex(value);
+
+        if (index == NO_MATCH) {
+            throw exceptionSupplier.get();
+        }
+
+        return apply(index, value);
+    }
+
+    /**
+     * Throws {@code exception} itself when no condition matches, instead of a new exception per call. Combined with a
+     * {@link StacklessException} the no-match path then neither allocates nor fills in a stack trace.
+     */
+    public <X extends Throwable> T orElseThrowReused(S value, X exception) throws X {
+        Objects.requireNonNull(exception);
+
+        var index = findMatchingIndex(value);
+
+        if (index == NO_MATCH) {
+            throw exception;
+        }
+
+        return apply(index, value);
+    }
+
+    public ConditionalResult<T> result(S value) {
+        var index = findMatchingIndex(value);
+
+        return index == NO_MATCH ? ConditionalResult.noMatch() : new ConditionalResult.Matched<>(apply(index, value));
+    }
+
+    public CompletableFuture<T> orElseAsync(S value, T defaultValue, Duration timeout) {
+        return orElseGetAsync(value, () -> defaultValue, timeout);
+    }
+
+    /**
+     * Tests all conditions concurrently, each on its own virtual thread, and completes with the outcome of the first
+     * declared condition that holds as soon as all conditions declared before it are known to be false. Conditions
+     * that are no longer needed are interrupted; when the outcome is not known within the timeout, the future
+     * completes exceptionally with a {@link java.util.concurrent.TimeoutException}.
+     */
+    public CompletableFuture<T> orElseGetAsync(S value, Supplier<? extends T> supplier, Duration timeout) {
+        Objects.requireNonNull(supplier);
+        Objects.requireNonNull(timeout);
+
+        if (value == null) {
+            return CompletableFuture.supplyAsync(supplier::get, Runnable::run);
+        }
+
+        var matchingIndex = SpeculativeMatch.start(conditionalActions, value, timeout);
+        var result = matchingIndex.thenApply(index -> index == NO_MATCH ? supplier.get() : apply(index, value));
+        result.whenComplete((outcome, failure) -> matchingIndex.cancel(false));
+
+        return result;
+    }
+
+    public Function<S, T> asFunction(Function<? super S, ? extends T> defaultFunction) {
+        Objects.requireNonNull(defaultFunction);
+
+        return value -> orElseApply(value, defaultFunction);
+    }
+
+    /**
+     * Returns a {@link Flow.Processor} that applies these rules to every item and emits the
+     * result, or the result of {@code defaultFunction} for items that match no rule.
+     */
+    public ConditionalProcessor<S, T> toProcessor(Function<? super S, ? extends T> defaultFunction) {
+        Objects.requireNonNull(defaultFunction);
+
+        return new ConditionalProcessor<>(this, defaultFunction, null, 1, null, 1);
+    }
+
+    /**
+     * Returns a {@link Flow.Processor} that applies these rules to every item and emits the
+     * result, while items that match no rule are published to {@code noMatchSubscriber}.
+     */
+    public ConditionalProcessor<S, T> toProcessor(Flow.Subscriber<? super S> noMatchSubscriber) {
+        Objects.requireNonNull(noMatchSubscriber);
+
+        return new ConditionalProcessor<>(this, null, noMatchSubscriber, 1, null, 1);
+    }
+
+    public Collector<S, ?, List<T>> toList(Function<? super S, ? extends T> defaultFunction) {
+        return Collectors.mapping(asFunction(defaultFunction), Collectors.toList());
+    }
+
+    public T[] applyAll(S[] values, Function<? super S, ? extends T> defaultFunction, IntFunction<T[]> generator) {
+        Objects.requireNonNull(defaultFunction);
+
+        var results = generator.apply(values.length);
+
+        for (int i = 0; i < values.length; i++) {
+            results[i] = orElseApply(values[i], defaultFunction);
+        }
+
+        return results;
+    }
+
+    public T[] applyAllParallel(S[] values, Function<? super S, ? extends T> defaultFunction, IntFunction<T[]> generator) {
+        Objects.requireNonNull(defaultFunction);
+
+        var results = generator.apply(values.length);
+        Arrays.parallelSetAll(results, i -> orElseApply(values[i], defaultFunction));
+
+        return results;
+    }
+
+    public List<T> applyAll(List<? extends S> values, Function<? super S, ? extends T> defaultFunction) {
+        Objects.requireNonNull(defaultFunction);
+
+        var results = new Object[values.size()];
+        var i = 0;
+
+        for (var value : values) {
+            results[i++] = orElseApply(value, defaultFunction);
+        }
+
+        return asUnmodifiableList(results);
+    }
+
+    @SuppressWarnings("unchecked")
+    public List<T> applyAllParallel(List<? extends S> values, Function<? super S, ? extends T> defaultFunction) {
+        Objects.requireNonNull(defaultFunction);
+
+        var input = values instanceof RandomAccess ? values : Arrays.asList((S[]) values.toArray());
+        var results = new Object[input.size()];
+        Arrays.parallelSetAll(results, i -> orElseApply(input.get(i), defaultFunction));
+
+        return asUnmodifiableList(results);
+    }
+
+    /**
+     * Returns rules that evaluate {@code actions} only when these rules do not match. The new rules refer to these
+     * rules instead of copying them, so chains derived from the same rules share them.
+     */
+    @SuppressWarnings("unchecked")
+    ConditionalRules<S, T> orWhen(ConditionalAction<S, T>[] actions) {
+        return new ConditionalRules<>(copyOf(actions), null, null, null, null, NO_MAP_FUNCTIONS, layerOrNull(), null);
+    }
+
+    /**
+     * Returns rules that evaluate {@code actions} before these rules, sharing these rules in the same way as
+     * {@link #orWhen}.
+     */
+    @SuppressWarnings("unchecked")
+    ConditionalRules<S, T> firstWhen(ConditionalAction<S, T>[] actions) {
+        return new ConditionalRules<>(copyOf(actions), null, null, null, null, NO_MAP_FUNCTIONS, null, layerOrNull());
+    }
+
+    private ConditionalRules<S, T> layerOrNull() {
+        if (inheritsActions()) {
+            throw new IllegalStateException("Rules can only be added to a flatMap result after firstMatching");
+        }
+
+        var isEmpty = conditionalActions.length == 0 && mapFunctions.length == 0 && before == null && after == null;
+
+        return isEmpty ? null : this;
+    }
+
+    Object evaluate(S value) {
+        if (before != null || after != null) {
+            return evaluateLayers(value);
+        }
+
+        var index = findMatchingIndex(value);
+
+        return index == NO_MATCH ? NO_RESULT : apply(index, value);
+    }
+
+    private Object evaluateLayers(S value) {
+        var result = before == null ? NO_RESULT : before.evaluate(value);
+
+        if (result == NO_RESULT) {
+            var index = findMatchingIndex(value);
+
+            if (index != NO_MATCH) {
+                return apply(index, value);
+            }
+
+            result = after == null ? NO_RESULT : after.evaluate(value);
+
+            if (result == NO_RESULT) {
+                return NO_RESULT;
+            }
+        }
+
+        return applyMapFunctions(result);
+    }
+
+    boolean inheritsActions() {
+        return conditionalActions == null;
+    }
+
+    Object applyMapFunctions(Object result) {
+        for (var mapFunction : mapFunctions) {
+            result = mapFunction.apply(result);
+        }
+
+        return result;
+    }
+
+    private T orElseApply(S value, Function<? super S, ? extends T> defaultFunction) {
+        var index = findMatchingIndex(value);
+
+        return index == NO_MATCH ? defaultFunction.apply(value) : apply(index, value);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<T> asUnmodifiableList(Object[] results) {
+        return Collections.unmodifiableList((List<T>) Arrays.asList(results));
+    }
+
+    @SuppressWarnings("unchecked")
+    private T apply(int index, S value) {
+        if (metrics == null) {
+            return (T) applyMapFunctions(conditionalActions[index].action().apply(value));
+        }
+
+        var start = System.nanoTime();
+
+        try {
+            return (T) applyMapFunctions(conditionalActions[index].action().apply(value));
+        } finally {
+            metrics.recordAction(index, System.nanoTime() - start);
+        }
+    }
+
+    private int findMatchingIndex(S value) {
+        if (metrics != null) {
+            return findMatchingIndexInstrumented(value);
+        }
+
+        if (value == null) {
+            return NO_MATCH;
+        }
+
+        if (hitOrder != null) {
+            return findMatchingIndexByHits(value);
+        }
+
+        if (featurePlan != null) {
+            return findMatchingIndexWithFeatures(value);
+        }
+
+        if (keyIndices == null) {
+            for (int i = 0; i < conditionalActions.length; i++) {
+                if (conditionalActions[i].condition().test(value)) {
+                    return i;
+                }
+            }
+
+            return NO_MATCH;
+        }
+
+        var i = 0;
+
+        while (i < conditionalActions.length) {
+            var keyIndex = keyIndices[i];
+
+            if (keyIndex != null) {
+                var index = keyIndex.firstIndexOf(value);
+
+                if (index != null) {
+                    return index;
+                }
+
+                i = keyIndex.end();
+            } else if (conditionalActions[i].condition().test(value)) {
+                return i;
+            } else {
+                i++;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    @SuppressWarnings("unchecked")
+    private int findMatchingIndexWithFeatures(S value) {
+        if (featurePlan.fitsInLocals()) {
+            return featurePlan.findMatchingIndex(conditionalActions, keyIndices, value);
+        }
+
+        var evaluation = featurePlan.newEvaluation();
+        var i = 0;
+
+        while (i < conditionalActions.length) {
+            var keyIndex = keyIndices == null ? null : keyIndices[i];
+
+            if (keyIndex != null) {
+                var index = featurePlan.hasFeature(i)
+                        ? keyIndex.firstIndexOfKey(featurePlan.feature(i, value, evaluation))
+                        : keyIndex.firstIndexOf(value);
+
+                if (index != null) {
+                    return index;
+                }
+
+                i = keyIndex.end();
+            } else if (featurePlan.test(i, (Predicate<Object>) conditionalActions[i].condition(), value, evaluation)) {
+                return i;
+            } else {
+                i++;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    private int findMatchingIndexByHits(S value) {
+        var evaluation = featurePlan == null ? null : featurePlan.newEvaluation();
+
+        for (var rule : hitOrder.order()) {
+            var index = testRule(hitOrder.ruleStart(rule), value, evaluation);
+
+            if (index != NO_MATCH) {
+                hitOrder.recordHit(rule);
+                return index;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    private int findMatchingIndexInstrumented(S value) {
+        var event = new ConditionalMatchEvent();
+        event.begin();
+
+        var index = NO_MATCH;
+
+        if (value != null && hitOrder != null) {
+            index = findMatchingIndexByHits(value);
+        } else if (value != null) {
+            var evaluation = featurePlan == null ? null : featurePlan.newEvaluation();
+            var start = 0;
+
+            while (index == NO_MATCH && start < conditionalActions.length) {
+                index = testRule(start, value, evaluation);
+                start = keyIndices != null && keyIndices[start] != null ? keyIndices[start].end() : start + 1;
+            }
+        }
+
+        metrics.recordMatch(index);
+
+        if (event.shouldCommit()) {
+            event.rules = metrics.name();
+            event.matchedRule = index;
+            event.commit();
+        }
+
+        return index;
+    }
+
+    private int testRule(int start, S value, FeaturePlan.Evaluation evaluation) {
+        if (metrics == null) {
+            return testRuleUninstrumented(start, value, evaluation);
+        }
+
+        var startTime = System.nanoTime();
+
+        try {
+            return testRuleUninstrumented(start, value, evaluation);
+        } finally {
+            metrics.recordPredicate(start, System.nanoTime() - startTime);
+        }
+    }
+
+    /**
+     * Tests the rule or indexed key run at {@code start}. With a feature plan the keys and key conditions it shares are
+     * taken from {@code evaluation}, so a reordered or instrumented chain still extracts each key once.
+     */
+    @SuppressWarnings("unchecked")
+    private int testRuleUninstrumented(int start, S value, FeaturePlan.Evaluation evaluation) {
+        var keyIndex = keyIndices == null ? null : keyIndices[start];
+
+        if (keyIndex != null) {
+            var index = evaluation != null && featurePlan.hasFeature(start)
+                    ? keyIndex.firstIndexOfKey(featurePlan.feature(start, value, evaluation))
+                    : keyIndex.firstIndexOf(value);
+
+            return index == null ? NO_MATCH : index;
+        }
+
+        var condition = conditionalActions[start].condition();
+
+        if (evaluation != null) {
+            return featurePlan.test(start, (Predicate<Object>) condition, value, evaluation) ? start : NO_MATCH;
+        }
+
+        return condition.test(value) ? start : NO_MATCH;
+    }
+}
@@ -0,0 +1,133 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.DoubleSupplier;
+import java.util.function.DoubleUnaryOperator;
+import java.util.function.Supplier;
+
+public final class DoubleConditional {
+
+    private static final int NO_MATCH = -1;
+    private static final DoubleConditionalAction[] NO_ACTIONS = new DoubleConditionalAction[0];
+    private static final DoubleUnaryOperator[] NO_MAP_FUNCTIONS = new DoubleUnaryOperator[0];
+
+    private final double value;
+    private final DoubleConditionalAction[] conditionalActions;
+    private final DoubleUnaryOperator[] mapFunctions;
+
+
+    private DoubleConditional(double value,
+                              DoubleConditionalAction[] actions,
+                              DoubleUnaryOperator[] mapFunctions) {
+        this.value = value;
+        this.conditionalActions = actions;
+        this.mapFunctions = mapFunctions;
+    }
+
+    public static DoubleConditional of(double value) {
+        return new DoubleConditional(value, NO_ACTIONS, NO_MAP_FUNCTIONS);
+    }
+
+    public static DoubleConditionalAction applyIf(DoublePredicate condition, DoubleUnaryOperator function) {
+        return new DoubleConditionalAction(condition, function);
+    }
+
+    /**
+     * Returns an action whose function turns the double into an object. Use it with {@link #firstMatchingToObj}.
+     */
+    public static <T> DoubleToObjConditional.DoubleToObjConditionalAction<T> applyIfToObj(DoublePredicate condition, DoubleFunction<T> function) {
+        return new DoubleToObjConditional.DoubleToObjConditionalAction<>(condition, function);
+    }
+
+    public DoubleConditional firstMatching(DoubleConditionalAction... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return new DoubleConditional(value, actionsCopy, NO_MAP_FUNCTIONS);
+    }
+
+    @SafeVarargs
+    public final <T> DoubleToObjConditional<T> firstMatchingToObj(DoubleToObjConditional.DoubleToObjConditionalAction<T>... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return DoubleToObjConditional.of(value, actionsCopy);
+    }
+
+    public DoubleConditional map(DoubleUnaryOperator mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = mapFunction;
+
+        return new DoubleConditional(value, conditionalActions, updatedMapFunctions);
+    }
+
+    public double orElse(double defaultValue) {
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? defaultValue : apply(index);
+    }
+
+    public double orElseGet(DoubleSupplier supplier) {
+        Objects.requireNonNull(supplier);
+
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? supplier.getAsDouble() : apply(index);
+    }
+
+    public <X extends Throwable> double orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var index = findMatchingIndex();
+
+        if (index == NO_MATCH) {
+            throw exceptionSupplier.get();
+        }
+
+        return apply(index);
+    }
+
+    private double apply(int index) {
+        var result = conditionalActions[index].action().applyAsDouble(value);
+
+        for (var mapFunction : mapFunctions) {
+            result = mapFunction.applyAsDouble(result);
+        }
+
+        return result;
+    }
+
+    private int findMatchingIndex() {
+        for (int i = 0; i < conditionalActions.length; i++) {
+            if (conditionalActions[i].condition().test(value)) {
+                return i;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    public record DoubleConditionalAction(DoublePredicate condition, DoubleUnaryOperator action) {
+
+        public DoubleConditionalAction {
+            Objects.requireNonNull(condition);
+            Objects.requireNonNull(action);
+        }
+
+        public DoubleConditionalAction and(DoubleUnaryOperator extraAction) {
+            return new DoubleConditionalAction(condition,
+                    action.andThen(extraAction));
+        }
+    }
+}
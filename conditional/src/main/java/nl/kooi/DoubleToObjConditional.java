@@ -0,0 +1,110 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.DoubleFunction;
+import java.util.function.DoublePredicate;
+import java.util.function.Supplier;
+
+/**
+ * A {@link DoubleConditional} whose actions turn the double into an object, for example to classify a latency as an
+ * enum constant. The double itself is never boxed.
+ */
+public final class DoubleToObjConditional<T> {
+
+    private static final int NO_MATCH = -1;
+
+    @SuppressWarnings("rawtypes")
+    private static final Function[] NO_MAP_FUNCTIONS = new Function[0];
+
+    private final double value;
+    private final DoubleToObjConditionalAction<?>[] conditionalActions;
+    private final Function<Object, Object>[] mapFunctions;
+
+
+    private DoubleToObjConditional(double value,
+                                   DoubleToObjConditionalAction<?>[] actions,
+                                   Function<Object, Object>[] mapFunctions) {
+        this.value = value;
+        this.conditionalActions = actions;
+        this.mapFunctions = mapFunctions;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> DoubleToObjConditional<T> of(double value, DoubleToObjConditionalAction<?>[] actions) {
+        return new DoubleToObjConditional<>(value, actions, NO_MAP_FUNCTIONS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <U> DoubleToObjConditional<U> map(Function<T, U> mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = (Function<Object, Object>) mapFunction;
+
+        return new DoubleToObjConditional<>(value, conditionalActions, updatedMapFunctions);
+    }
+
+    public T orElse(T defaultValue) {
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? defaultValue : apply(index);
+    }
+
+    public T orElseGet(Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? supplier.get() : apply(index);
+    }
+
+    public <X extends Throwable> T orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var index = findMatchingIndex();
+
+        if (index == NO_MATCH) {
+            throw exceptionSupplier.get();
+        }
+
+        return apply(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T apply(int index) {
+        Object result = conditionalActions[index].action().apply(value);
+
+        for (var mapFunction : mapFunctions) {
+            result = mapFunction.apply(result);
+        }
+
+        return (T) result;
+    }
+
+    private int findMatchingIndex() {
+        for (int i = 0; i < conditionalActions.length; i++) {
+            if (conditionalActions[i].condition().test(value)) {
+                return i;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    public record DoubleToObjConditionalAction<T>(DoublePredicate condition, DoubleFunction<T> action) {
+
+        public DoubleToObjConditionalAction {
+            Objects.requireNonNull(condition);
+            Objects.requireNonNull(action);
+        }
+
+        public <U> DoubleToObjConditionalAction<U> and(Function<T, U> extraAction) {
+            Objects.requireNonNull(extraAction);
+
+            return new DoubleToObjConditionalAction<>(condition,
+                    value -> extraAction.apply(action.apply(value)));
+        }
+    }
+}
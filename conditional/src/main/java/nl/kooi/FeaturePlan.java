@@ -0,0 +1,201 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.function.Predicate;
+
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.ConditionalKey.KeyCondition;
+
+final class FeaturePlan {
+
+    private static final Object UNSET = new Object();
+    private static final byte UNKNOWN = 0;
+    private static final byte TRUE = 1;
+    private static final byte FALSE = 2;
+    private static final int LOCAL_FEATURES = 4;
+    private static final int LOCAL_OUTCOMES = Long.SIZE;
+
+    private final ConditionalKey<Object, Object>[] features;
+    private final int[] featureSlots;
+    private final int[] outcomeSlots;
+    private final int outcomeCount;
+
+    private FeaturePlan(ConditionalKey<Object, Object>[] features, int[] featureSlots, int[] outcomeSlots, int outcomeCount) {
+        this.features = features;
+        this.featureSlots = featureSlots;
+        this.outcomeSlots = outcomeSlots;
+        this.outcomeCount = outcomeCount;
+    }
+
+    @SuppressWarnings("unchecked")
+    static FeaturePlan compile(ConditionalAction<?, ?>[] actions, KeyIndex[] keyIndices) {
+        var featureSlotByKey = new HashMap<ConditionalKey<?, ?>, Integer>();
+        var outcomeSlotByCondition = new HashMap<KeyCondition<?, ?>, Integer>();
+        var featureUsages = new int[actions.length];
+        var featureSlots = new int[actions.length];
+        var outcomeSlots = new int[actions.length];
+        var sharingFound = false;
+
+        Arrays.fill(featureSlots, -1);
+        Arrays.fill(outcomeSlots, -1);
+
+        var i = 0;
+
+        while (i < actions.length) {
+            // The class of a value is a field read, so type conditions are not worth caching.
+            if (actions[i].condition() instanceof KeyCondition<?, ?> condition
+                    && !(condition instanceof ConditionalKey.TypeCondition<?>)) {
+                var featureSlot = featureSlotByKey.computeIfAbsent(condition.conditionalKey(), key -> featureSlotByKey.size());
+                var outcomeSlot = outcomeSlotByCondition.computeIfAbsent(condition, key -> outcomeSlotByCondition.size());
+
+                featureSlots[i] = featureSlot;
+                outcomeSlots[i] = outcomeSlot;
+                sharingFound |= ++featureUsages[featureSlot] > 1;
+            }
+
+            i = keyIndices != null && keyIndices[i] != null ? keyIndices[i].end() : i + 1;
+        }
+
+        if (!sharingFound) {
+            return null;
+        }
+
+        var features = new ConditionalKey<?, ?>[featureSlotByKey.size()];
+        featureSlotByKey.forEach((key, slot) -> features[slot] = key);
+
+        return new FeaturePlan((ConditionalKey<Object, Object>[]) features, featureSlots, outcomeSlots, outcomeSlotByCondition.size());
+    }
+
+    /**
+     * Returns whether {@link #findMatchingIndex} can keep all feature values and outcomes of one evaluation in local
+     * variables, which is the case for up to {@value #LOCAL_FEATURES} features and {@value #LOCAL_OUTCOMES} outcomes.
+     */
+    boolean fitsInLocals() {
+        return features.length <= LOCAL_FEATURES && outcomeCount <= LOCAL_OUTCOMES;
+    }
+
+    /**
+     * Finds the first matching rule in declaration order without allocating: the feature values are held in four
+     * locals and the outcomes in two bit sets. Only valid when the plan {@link #fitsInLocals() fits in locals}.
+     */
+    @SuppressWarnings("unchecked")
+    int findMatchingIndex(ConditionalAction<?, ?>[] actions, KeyIndex[] keyIndices, Object value) {
+        Object featureValue0 = UNSET;
+        Object featureValue1 = UNSET;
+        Object featureValue2 = UNSET;
+        Object featureValue3 = UNSET;
+        var decidedOutcomes = 0L;
+        var trueOutcomes = 0L;
+        var i = 0;
+
+        while (i < actions.length) {
+            var keyIndex = keyIndices == null ? null : keyIndices[i];
+            var featureSlot = featureSlots[i];
+            var outcomeSlot = outcomeSlots[i];
+            var outcomeBit = outcomeSlot < 0 ? 0L : 1L << outcomeSlot;
+            Object featureValue = null;
+
+            if (featureSlot >= 0 && (keyIndex != null || (decidedOutcomes & outcomeBit) == 0)) {
+                featureValue = switch (featureSlot) {
+                    case 0 -> featureValue0;
+                    case 1 -> featureValue1;
+                    case 2 -> featureValue2;
+                    default -> featureValue3;
+                };
+
+                if (featureValue == UNSET) {
+                    featureValue = features[featureSlot].keyExtractor().apply(value);
+
+                    switch (featureSlot) {
+                        case 0 -> featureValue0 = featureValue;
+                        case 1 -> featureValue1 = featureValue;
+                        case 2 -> featureValue2 = featureValue;
+                        default -> featureValue3 = featureValue;
+                    }
+                }
+            }
+
+            if (keyIndex != null) {
+                var index = featureSlot >= 0 ? keyIndex.firstIndexOfKey(featureValue) : keyIndex.firstIndexOf(value);
+
+                if (index != null) {
+                    return index;
+                }
+
+                i = keyIndex.end();
+                continue;
+            }
+
+            var condition = actions[i].condition();
+
+            if (outcomeSlot < 0) {
+                if (((Predicate<Object>) condition).test(value)) {
+                    return i;
+                }
+            } else {
+                if ((decidedOutcomes & outcomeBit) == 0) {
+                    decidedOutcomes |= outcomeBit;
+                    trueOutcomes |= ((KeyCondition<Object, Object>) condition).testKey(featureValue) ? outcomeBit : 0L;
+                }
+
+                if ((trueOutcomes & outcomeBit) != 0) {
+                    return i;
+                }
+            }
+
+            i++;
+        }
+
+        return ConditionalRules.NO_MATCH;
+    }
+
+    /**
+     * Returns the scratch state for an evaluation that cannot use {@link #findMatchingIndex}: a plan that does not fit
+     * in locals, or rules that are reordered by hits or instrumented. The state is allocated per evaluation rather
+     * than cached per thread, so virtual threads and swapped rule sets do not leave scratch arrays behind.
+     */
+    Evaluation newEvaluation() {
+        var featureValues = new Object[features.length];
+        Arrays.fill(featureValues, UNSET);
+
+        return new Evaluation(featureValues, new byte[outcomeCount]);
+    }
+
+    boolean hasFeature(int rule) {
+        return featureSlots[rule] >= 0;
+    }
+
+    Object feature(int rule, Object value, Evaluation evaluation) {
+        var slot = featureSlots[rule];
+        var featureValue = evaluation.featureValues[slot];
+
+        if (featureValue == UNSET) {
+            featureValue = features[slot].keyExtractor().apply(value);
+            evaluation.featureValues[slot] = featureValue;
+        }
+
+        return featureValue;
+    }
+
+    @SuppressWarnings("unchecked")
+    boolean test(int rule, Predicate<Object> condition, Object value, Evaluation evaluation) {
+        var outcomeSlot = outcomeSlots[rule];
+
+        if (outcomeSlot < 0) {
+            return condition.test(value);
+        }
+
+        var outcomes = evaluation.outcomes;
+
+        if (outcomes[outcomeSlot] == UNKNOWN) {
+            var keyCondition = (KeyCondition<Object, Object>) condition;
+            outcomes[outcomeSlot] = keyCondition.testKey(feature(rule, value, evaluation)) ? TRUE : FALSE;
+        }
+
+        return outcomes[outcomeSlot] == TRUE;
+    }
+
+    record Evaluation(Object[] featureValues, byte[] outcomes) {
+    }
+}
@@ -0,0 +1,75 @@
+package nl.kooi;
+
+import java.util.Comparator;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+final class HitOrder {
+
+    private static final int REORDER_INTERVAL = 1 << 12;
+
+    private final int[] ruleStarts;
+    private final LongAdder[] hits;
+    private final AtomicBoolean reordering = new AtomicBoolean();
+    private volatile int[] order;
+
+    private HitOrder(int[] ruleStarts) {
+        this.ruleStarts = ruleStarts;
+        this.hits = IntStream.range(0, ruleStarts.length)
+                .mapToObj(i -> new LongAdder())
+                .toArray(LongAdder[]::new);
+        this.order = IntStream.range(0, ruleStarts.length).toArray();
+    }
+
+    static HitOrder of(int actionCount, KeyIndex[] keyIndices) {
+        var ruleStarts = IntStream.builder();
+        var i = 0;
+
+        while (i < actionCount) {
+            ruleStarts.add(i);
+            i = keyIndices != null && keyIndices[i] != null ? keyIndices[i].end() : i + 1;
+        }
+
+        return new HitOrder(ruleStarts.build().toArray());
+    }
+
+    int[] order() {
+        return order;
+    }
+
+    int ruleStart(int rule) {
+        return ruleStarts[rule];
+    }
+
+    void recordHit(int rule) {
+        hits[rule].increment();
+
+        if (ThreadLocalRandom.current().nextInt(REORDER_INTERVAL) == 0) {
+            reorder();
+        }
+    }
+
+    private void reorder() {
+        if (!reordering.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            var counts = new long[hits.length];
+
+            for (int i = 0; i < hits.length; i++) {
+                counts[i] = hits[i].sum();
+            }
+
+            order = IntStream.range(0, counts.length)
+                    .boxed()
+                    .sorted(Comparator.comparingLong((Integer rule) -> counts[rule]).reversed())
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        } finally {
+            reordering.set(false);
+        }
+    }
+}
@@ -0,0 +1,157 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+import static nl.kooi.IntConditional.IntConditionalAction;
+
+public final class IntColumnarRules {
+
+    private static final int BLOCK_SIZE = 4096;
+    private static final int WORDS_PER_BLOCK = BLOCK_SIZE / Long.SIZE;
+    private static final IntUnaryOperator[] NO_MAP_FUNCTIONS = new IntUnaryOperator[0];
+
+    private final IntConditionalAction[] conditionalActions;
+    private final IntUnaryOperator[] mapFunctions;
+
+    private IntColumnarRules(IntConditionalAction[] actions,
+                             IntUnaryOperator[] mapFunctions) {
+        this.conditionalActions = actions;
+        this.mapFunctions = mapFunctions;
+    }
+
+    public static IntColumnarRules firstMatching(IntConditionalAction... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return new IntColumnarRules(actionsCopy, NO_MAP_FUNCTIONS);
+    }
+
+    public IntColumnarRules map(IntUnaryOperator mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = mapFunction;
+
+        return new IntColumnarRules(conditionalActions, updatedMapFunctions);
+    }
+
+    public int[] applyAll(int[] values, int defaultValue) {
+        var results = new int[values.length];
+        var unmatched = new long[WORDS_PER_BLOCK];
+        var matched = new long[WORDS_PER_BLOCK];
+
+        for (int blockStart = 0; blockStart < values.length; blockStart += BLOCK_SIZE) {
+            var blockLength = Math.min(BLOCK_SIZE, values.length - blockStart);
+            var words = (blockLength + Long.SIZE - 1) / Long.SIZE;
+
+            selectAll(unmatched, blockLength);
+
+            for (var conditionalAction : conditionalActions) {
+                if (selectMatching(conditionalAction.condition(), values, blockStart, unmatched, matched, words)) {
+                    applyToSelection(conditionalAction.action(), values, results, blockStart, matched, words);
+                }
+
+                if (isEmpty(unmatched, words)) {
+                    break;
+                }
+            }
+
+            for (int word = 0; word < words; word++) {
+                fillSelection(results, blockStart + word * Long.SIZE, unmatched[word], defaultValue);
+            }
+        }
+
+        return results;
+    }
+
+    private static boolean selectMatching(IntPredicate condition, int[] values, int blockStart,
+                                          long[] unmatched, long[] matched, int words) {
+        var anyMatched = false;
+
+        for (int word = 0; word < words; word++) {
+            var selection = unmatched[word];
+            var offset = blockStart + word * Long.SIZE;
+            var matches = 0L;
+
+            // A fully selected word, such as every word the first condition of a block sees, needs no bit scanning.
+            if (selection == -1L) {
+                for (int bit = 0; bit < Long.SIZE; bit++) {
+                    matches |= (condition.test(values[offset + bit]) ? 1L : 0L) << bit;
+                }
+
+                selection = 0;
+            }
+
+            while (selection != 0) {
+                var bit = Long.numberOfTrailingZeros(selection);
+
+                if (condition.test(values[offset + bit])) {
+                    matches |= 1L << bit;
+                }
+
+                selection &= selection - 1;
+            }
+
+            matched[word] = matches;
+            unmatched[word] &= ~matches;
+            anyMatched |= matches != 0;
+        }
+
+        return anyMatched;
+    }
+
+    private void applyToSelection(IntUnaryOperator action, int[] values, int[] results, int blockStart,
+                                  long[] matched, int words) {
+        for (int word = 0; word < words; word++) {
+            var selection = matched[word];
+            var offset = blockStart + word * Long.SIZE;
+
+            while (selection != 0) {
+                var index = offset + Long.numberOfTrailingZeros(selection);
+                var result = action.applyAsInt(values[index]);
+
+                for (var mapFunction : mapFunctions) {
+                    result = mapFunction.applyAsInt(result);
+                }
+
+                results[index] = result;
+                selection &= selection - 1;
+            }
+        }
+    }
+
+    private static void selectAll(long[] selection, int length) {
+        Arrays.fill(selection, 0L);
+
+        for (int word = 0; word < length / Long.SIZE; word++) {
+            selection[word] = -1L;
+        }
+
+        if (length % Long.SIZE != 0) {
+            selection[length / Long.SIZE] = (1L << (length % Long.SIZE)) - 1;
+        }
+    }
+
+    private static boolean isEmpty(long[] selection, int words) {
+        for (int word = 0; word < words; word++) {
+            if (selection[word] != 0) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static void fillSelection(int[] results, int offset, long selection, int value) {
+        while (selection != 0) {
+            results[offset + Long.numberOfTrailingZeros(selection)] = value;
+            selection &= selection - 1;
+        }
+    }
+}
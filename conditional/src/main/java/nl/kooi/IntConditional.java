@@ -0,0 +1,133 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.IntSupplier;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Supplier;
+
+public final class IntConditional {
+
+    private static final int NO_MATCH = -1;
+    private static final IntConditionalAction[] NO_ACTIONS = new IntConditionalAction[0];
+    private static final IntUnaryOperator[] NO_MAP_FUNCTIONS = new IntUnaryOperator[0];
+
+    private final int value;
+    private final IntConditionalAction[] conditionalActions;
+    private final IntUnaryOperator[] mapFunctions;
+
+
+    private IntConditional(int value,
+                           IntConditionalAction[] actions,
+                           IntUnaryOperator[] mapFunctions) {
+        this.value = value;
+        this.conditionalActions = actions;
+        this.mapFunctions = mapFunctions;
+    }
+
+    public static IntConditional of(int value) {
+        return new IntConditional(value, NO_ACTIONS, NO_MAP_FUNCTIONS);
+    }
+
+    public static IntConditionalAction applyIf(IntPredicate condition, IntUnaryOperator function) {
+        return new IntConditionalAction(condition, function);
+    }
+
+    /**
+     * Returns an action whose function turns the int into an object. Use it with {@link #firstMatchingToObj}.
+     */
+    public static <T> IntToObjConditional.IntToObjConditionalAction<T> applyIfToObj(IntPredicate condition, IntFunction<T> function) {
+        return new IntToObjConditional.IntToObjConditionalAction<>(condition, function);
+    }
+
+    public IntConditional firstMatching(IntConditionalAction... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return new IntConditional(value, actionsCopy, NO_MAP_FUNCTIONS);
+    }
+
+    @SafeVarargs
+    public final <T> IntToObjConditional<T> firstMatchingToObj(IntToObjConditional.IntToObjConditionalAction<T>... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return IntToObjConditional.of(value, actionsCopy);
+    }
+
+    public IntConditional map(IntUnaryOperator mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = mapFunction;
+
+        return new IntConditional(value, conditionalActions, updatedMapFunctions);
+    }
+
+    public int orElse(int defaultValue) {
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? defaultValue : apply(index);
+    }
+
+    public int orElseGet(IntSupplier supplier) {
+        Objects.requireNonNull(supplier);
+
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? supplier.getAsInt() : apply(index);
+    }
+
+    public <X extends Throwable> int orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var index = findMatchingIndex();
+
+        if (index == NO_MATCH) {
+            throw exceptionSupplier.get();
+        }
+
+        return apply(index);
+    }
+
+    private int apply(int index) {
+        var result = conditionalActions[index].action().applyAsInt(value);
+
+        for (var mapFunction : mapFunctions) {
+            result = mapFunction.applyAsInt(result);
+        }
+
+        return result;
+    }
+
+    private int findMatchingIndex() {
+        for (int i = 0; i < conditionalActions.length; i++) {
+            if (conditionalActions[i].condition().test(value)) {
+                return i;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    public record IntConditionalAction(IntPredicate condition, IntUnaryOperator action) {
+
+        public IntConditionalAction {
+            Objects.requireNonNull(condition);
+            Objects.requireNonNull(action);
+        }
+
+        public IntConditionalAction and(IntUnaryOperator extraAction) {
+            return new IntConditionalAction(condition,
+                    action.andThen(extraAction));
+        }
+    }
+}
@@ -0,0 +1,110 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import java.util.function.IntPredicate;
+import java.util.function.Supplier;
+
+/**
+ * An {@link IntConditional} whose actions turn the int into an object, for example to classify a status code as an
+ * enum constant. The int itself is never boxed.
+ */
+public final class IntToObjConditional<T> {
+
+    private static final int NO_MATCH = -1;
+
+    @SuppressWarnings("rawtypes")
+    private static final Function[] NO_MAP_FUNCTIONS = new Function[0];
+
+    private final int value;
+    private final IntToObjConditionalAction<?>[] conditionalActions;
+    private final Function<Object, Object>[] mapFunctions;
+
+
+    private IntToObjConditional(int value,
+                                IntToObjConditionalAction<?>[] actions,
+                                Function<Object, Object>[] mapFunctions) {
+        this.value = value;
+        this.conditionalActions = actions;
+        this.mapFunctions = mapFunctions;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> IntToObjConditional<T> of(int value, IntToObjConditionalAction<?>[] actions) {
+        return new IntToObjConditional<>(value, actions, NO_MAP_FUNCTIONS);
+    }
+
+    @SuppressWarnings("unchecked")
+    public <U> IntToObjConditional<U> map(Function<T, U> mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = (Function<Object, Object>) mapFunction;
+
+        return new IntToObjConditional<>(value, conditionalActions, updatedMapFunctions);
+    }
+
+    public T orElse(T defaultValue) {
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? defaultValue : apply(index);
+    }
+
+    public T orElseGet(Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? supplier.get() : apply(index);
+    }
+
+    public <X extends Throwable> T orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var index = findMatchingIndex();
+
+        if (index == NO_MATCH) {
+            throw exceptionSupplier.get();
+        }
+
+        return apply(index);
+    }
+
+    @SuppressWarnings("unchecked")
+    private T apply(int index) {
+        Object result = conditionalActions[index].action().apply(value);
+
+        for (var mapFunction : mapFunctions) {
+            result = mapFunction.apply(result);
+        }
+
+        return (T) result;
+    }
+
+    private int findMatchingIndex() {
+        for (int i = 0; i < conditionalActions.length; i++) {
+            if (conditionalActions[i].condition().test(value)) {
+                return i;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    public record IntToObjConditionalAction<T>(IntPredicate condition, IntFunction<T> action) {
+
+        public IntToObjConditionalAction {
+            Objects.requireNonNull(condition);
+            Objects.requireNonNull(action);
+        }
+
+        public <U> IntToObjConditionalAction<U> and(Function<T, U> extraAction) {
+            Objects.requireNonNull(extraAction);
+
+            return new IntToObjConditionalAction<>(condition,
+                    value -> extraAction.apply(action.apply(value)));
+        }
+    }
+}
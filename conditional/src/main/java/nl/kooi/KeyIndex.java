@@ -0,0 +1,187 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+import static nl.kooi.Conditional.ConditionalAction;
+import static nl.kooi.ConditionalRange.RangeCondition;
+
+sealed interface KeyIndex permits KeyIndex.EqualityIndex, KeyIndex.RangeIndex, KeyIndex.TypeIndex {
+
+    int MIN_INDEXED_RULES = 4;
+
+    static KeyIndex[] compile(ConditionalAction<?, ?>[] actions) {
+        KeyIndex[] keyIndices = null;
+        var start = 0;
+
+        while (start < actions.length) {
+            var end = keyRulesEnd(actions, start);
+
+            if (end - start >= MIN_INDEXED_RULES) {
+                if (keyIndices == null) {
+                    keyIndices = new KeyIndex[actions.length];
+                }
+
+                keyIndices[start] = switch (actions[start].condition()) {
+                    case RangeCondition<?, ?> range -> RangeIndex.of(actions, start, end);
+                    case ConditionalKey.TypeCondition<?> type -> TypeIndex.of(actions, start, end);
+                    default -> EqualityIndex.of(actions, start, end);
+                };
+            }
+
+            start = Math.max(end, start + 1);
+        }
+
+        return keyIndices;
+    }
+
+    Function<Object, Object> keyExtractor();
+
+    int end();
+
+    Integer firstIndexOfKey(Object key);
+
+    default Integer firstIndexOf(Object value) {
+        return firstIndexOfKey(keyExtractor().apply(value));
+    }
+
+    private static int keyRulesEnd(ConditionalAction<?, ?>[] actions, int start) {
+        var first = actions[start].condition();
+
+        if (!(first instanceof ConditionalKey.KeyEquals<?, ?>)
+                && !(first instanceof RangeCondition<?, ?>)
+                && !(first instanceof ConditionalKey.TypeCondition<?>)) {
+            return start;
+        }
+
+        var conditionalKey = ((ConditionalKey.KeyCondition<?, ?>) first).conditionalKey();
+        var end = start + 1;
+
+        while (end < actions.length
+                && actions[end].condition().getClass() == first.getClass()
+                && ((ConditionalKey.KeyCondition<?, ?>) actions[end].condition()).conditionalKey().equals(conditionalKey)) {
+            end++;
+        }
+
+        return end;
+    }
+
+    record EqualityIndex(Function<Object, Object> keyExtractor, Map<Object, Integer> firstIndexByKey, int end)
+            implements KeyIndex {
+
+        @SuppressWarnings("unchecked")
+        private static EqualityIndex of(ConditionalAction<?, ?>[] actions, int start, int end) {
+            var first = (ConditionalKey.KeyEquals<?, ?>) actions[start].condition();
+            var firstIndexByKey = new HashMap<Object, Integer>();
+
+            for (int i = start; i < end; i++) {
+                var keyEquals = (ConditionalKey.KeyEquals<?, ?>) actions[i].condition();
+                firstIndexByKey.putIfAbsent(keyEquals.key(), i);
+            }
+
+            return new EqualityIndex((Function<Object, Object>) first.conditionalKey().keyExtractor(), firstIndexByKey, end);
+        }
+
+        @Override
+        public Integer firstIndexOfKey(Object key) {
+            return firstIndexByKey.get(key);
+        }
+    }
+
+    /**
+     * Splits the key space at every distinct bound into segments: the open interval below each bound, the bound itself
+     * and the open interval above the last bound. Every segment lies completely inside or outside each range, so the
+     * first matching rule can be resolved per segment at compile time and looked up with a binary search.
+     */
+    record RangeIndex(Function<Object, Object> keyExtractor, Object[] bounds, Integer[] firstIndexBySegment, int end)
+            implements KeyIndex {
+
+        @SuppressWarnings("unchecked")
+        private static RangeIndex of(ConditionalAction<?, ?>[] actions, int start, int end) {
+            var distinctBounds = new TreeSet<Object>();
+
+            for (int i = start; i < end; i++) {
+                var range = (RangeCondition<?, ?>) actions[i].condition();
+
+                if (range.lower() != null) {
+                    distinctBounds.add(range.lower());
+                }
+                if (range.upper() != null) {
+                    distinctBounds.add(range.upper());
+                }
+            }
+
+            var bounds = distinctBounds.toArray();
+            var firstIndexBySegment = new Integer[2 * bounds.length + 1];
+
+            for (int i = end - 1; i >= start; i--) {
+                var range = (RangeCondition<?, ?>) actions[i].condition();
+                var firstSegment = range.lower() == null
+                        ? 0
+                        : 2 * Arrays.binarySearch(bounds, range.lower()) + (range.lowerInclusive() ? 1 : 2);
+                var lastSegment = range.upper() == null
+                        ? 2 * bounds.length
+                        : 2 * Arrays.binarySearch(bounds, range.upper()) + (range.upperInclusive() ? 1 : 0);
+
+                Arrays.fill(firstIndexBySegment, firstSegment, Math.max(firstSegment, lastSegment + 1), i);
+            }
+
+            var first = (ConditionalKey.KeyCondition<?, ?>) actions[start].condition();
+
+            return new RangeIndex((Function<Object, Object>) first.conditionalKey().keyExtractor(), bounds,
+                    firstIndexBySegment, end);
+        }
+
+        @Override
+        public Integer firstIndexOfKey(Object key) {
+            if (key == null) {
+                return null;
+            }
+
+            var position = Arrays.binarySearch(bounds, key);
+
+            return firstIndexBySegment[position >= 0 ? 2 * position + 1 : -2 * (position + 1)];
+        }
+    }
+
+    /**
+     * Resolves each concrete class to the first rule of the run whose type it is an instance of. The resolution runs
+     * once per class and is cached in a {@link ClassValue}.
+     */
+    record TypeIndex(Function<Object, Object> keyExtractor, ClassValue<Integer> firstIndexByClass, int end)
+            implements KeyIndex {
+
+        private static final Integer NO_INDEX = -1;
+
+        private static TypeIndex of(ConditionalAction<?, ?>[] actions, int start, int end) {
+            var types = new Class<?>[end - start];
+
+            for (int i = start; i < end; i++) {
+                types[i - start] = ((ConditionalKey.TypeCondition<?>) actions[i].condition()).type();
+            }
+
+            return new TypeIndex(Object::getClass, new ClassValue<>() {
+                @Override
+                protected Integer computeValue(Class<?> type) {
+                    for (int i = 0; i < types.length; i++) {
+                        if (types[i].isAssignableFrom(type)) {
+                            return start + i;
+                        }
+                    }
+
+                    return NO_INDEX;
+                }
+            }, end);
+        }
+
+        @Override
+        public Integer firstIndexOfKey(Object key) {
+            var index = firstIndexByClass.get((Class<?>) key);
+
+            return index == NO_INDEX ? null : index;
+        }
+    }
+}
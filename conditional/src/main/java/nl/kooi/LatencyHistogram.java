@@ -0,0 +1,29 @@
+package nl.kooi;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+final class LatencyHistogram {
+
+    static final int BUCKETS = 32;
+
+    private final LongAdder[] buckets = IntStream.range(0, BUCKETS)
+            .mapToObj(i -> new LongAdder())
+            .toArray(LongAdder[]::new);
+
+    void record(long nanos) {
+        var bucket = 64 - Long.numberOfLeadingZeros(Math.max(nanos, 0));
+
+        buckets[Math.min(bucket, BUCKETS - 1)].increment();
+    }
+
+    long[] snapshot() {
+        var counts = new long[BUCKETS];
+
+        for (int i = 0; i < BUCKETS; i++) {
+            counts[i] = buckets[i].sum();
+        }
+
+        return counts;
+    }
+}
@@ -0,0 +1,133 @@
+package nl.kooi;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.function.LongFunction;
+import java.util.function.LongPredicate;
+import java.util.function.LongSupplier;
+import java.util.function.LongUnaryOperator;
+import java.util.function.Supplier;
+
+public final class LongConditional {
+
+    private static final int NO_MATCH = -1;
+    private static final LongConditionalAction[] NO_ACTIONS = new LongConditionalAction[0];
+    private static final LongUnaryOperator[] NO_MAP_FUNCTIONS = new LongUnaryOperator[0];
+
+    private final long value;
+    private final LongConditionalAction[] conditionalActions;
+    private final LongUnaryOperator[] mapFunctions;
+
+
+    private LongConditional(long value,
+                            LongConditionalAction[] actions,
+                            LongUnaryOperator[] mapFunctions) {
+        this.value = value;
+        this.conditionalActions = actions;
+        this.mapFunctions = mapFunctions;
+    }
+
+    public static LongConditional of(long value) {
+        return new LongConditional(value, NO_ACTIONS, NO_MAP_FUNCTIONS);
+    }
+
+    public static LongConditionalAction applyIf(LongPredicate condition, LongUnaryOperator function) {
+        return new LongConditionalAction(condition, function);
+    }
+
+    /**
+     * Returns an action whose function turns the long into an object. Use it with {@link #firstMatchingToObj}.
+     */
+    public static <T> LongToObjConditional.LongToObjConditionalAction<T> applyIfToObj(LongPredicate condition, LongFunction<T> function) {
+        return new LongToObjConditional.LongToObjConditionalAction<>(condition, function);
+    }
+
+    public LongConditional firstMatching(LongConditionalAction... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return new LongConditional(value, actionsCopy, NO_MAP_FUNCTIONS);
+    }
+
+    @SafeVarargs
+    public final <T> LongToObjConditional<T> firstMatchingToObj(LongToObjConditional.LongToObjConditionalAction<T>... actions) {
+        var actionsCopy = actions.clone();
+
+        for (var action : actionsCopy) {
+            Objects.requireNonNull(action);
+        }
+
+        return LongToObjConditional.of(value, actionsCopy);
+    }
+
+    public LongConditional map(LongUnaryOperator mapFunction) {
+        Objects.requireNonNull(mapFunction);
+
+        var updatedMapFunctions = Arrays.copyOf(mapFunctions, mapFunctions.length + 1);
+        updatedMapFunctions[mapFunctions.length] = mapFunction;
+
+        return new LongConditional(value, conditionalActions, updatedMapFunctions);
+    }
+
+    public long orElse(long defaultValue) {
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? defaultValue : apply(index);
+    }
+
+    public long orElseGet(LongSupplier supplier) {
+        Objects.requireNonNull(supplier);
+
+        var index = findMatchingIndex();
+
+        return index == NO_MATCH ? supplier.getAsLong() : apply(index);
+    }
+
+    public <X extends Throwable> long orElseThrow(Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var index = findMatchingIndex();
+
+        if (index == NO_MATCH) {
+            throw exceptionSupplier.get();
+        }
+
+        return apply(index);
+    }
+
+    private long apply(int index) {
+        var result = conditionalActions[index].action().applyAsLong(value);
+
+        for (var mapFunction : mapFunctions) {
+            result = mapFunction.applyAsLong(result);
+        }
+
+        return result;
+    }
+
+    private int findMatchingIndex() {
+        for (int i = 0; i < conditionalActions.length; i++) {
+            if (conditionalActions[i].condition().test(value)) {
+                return i;
+            }
+        }
+
+        return NO_MATCH;
+    }
+
+    public record LongConditionalAction(LongPredicate condition, LongUnaryOperator action) {
+
+        public LongConditionalAction {
+            Objects.requireNonNull(condition);
+            Objects.requireNonNull(action);
+        }
+
+        public LongConditionalAction and(LongUnaryOperator extraAction) {
+            return new LongConditionalAction(condition,
+                    action.andThen(extraAction));
+        }
+    }
+}
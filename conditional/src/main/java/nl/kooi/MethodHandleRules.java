@@ -0,0 +1,110 @@
+package nl.kooi;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * A rule chain compiled into a tree of {@link MethodHandles#guardWithTest} handles. Each compiled chain has its own
+ * call tree, so when it is held in a {@code static final} field the JIT can inline every condition, action and map
+ * function of that chain instead of dispatching through the shared, megamorphic loop in {@link ConditionalRules}.
+ */
+public record MethodHandleRules<S, T>(MethodHandle handle) {
+
+    private static final MethodHandle PREDICATE_TEST;
+    private static final MethodHandle FUNCTION_APPLY;
+    private static final MethodHandle IS_NULL;
+    private static final MethodType RULES_TYPE = MethodType.methodType(Object.class, Object.class, Object.class);
+
+    static {
+        try {
+            var lookup = MethodHandles.lookup();
+
+            PREDICATE_TEST = lookup.findVirtual(Predicate.class, "test",
+                    MethodType.methodType(boolean.class, Object.class));
+            FUNCTION_APPLY = lookup.findVirtual(Function.class, "apply",
+                    MethodType.methodType(Object.class, Object.class));
+            IS_NULL = lookup.findStatic(Objects.class, "isNull",
+                    MethodType.methodType(boolean.class, Object.class));
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    /**
+     * Stays a record, because HotSpot only trusts the final fields of records (and hidden classes) as constants; that
+     * is what lets the JIT inline the handle tree. The type is checked here so that a handle passed directly fails
+     * when it is wrapped instead of with a {@code WrongMethodTypeException} on the first evaluation.
+     */
+    public MethodHandleRules {
+        Objects.requireNonNull(handle);
+
+        if (!handle.type().equals(RULES_TYPE)) {
+            throw new IllegalArgumentException("handle should have type " + RULES_TYPE + ", but was " + handle.type());
+        }
+    }
+
+    static <S, T> MethodHandleRules<S, T> compile(Predicate<?>[] conditions,
+                                                  Function<?, ?>[] actions,
+                                                  Function<?, ?>[] mapFunctions) {
+        var returnDefault = MethodHandles.dropArguments(MethodHandles.identity(Object.class), 0, Object.class);
+        var handle = returnDefault;
+
+        for (int i = conditions.length - 1; i >= 0; i--) {
+            var action = FUNCTION_APPLY.bindTo(actions[i]);
+
+            for (var mapFunction : mapFunctions) {
+                action = MethodHandles.filterReturnValue(action, FUNCTION_APPLY.bindTo(mapFunction));
+            }
+
+            handle = MethodHandles.guardWithTest(PREDICATE_TEST.bindTo(conditions[i]),
+                    MethodHandles.dropArguments(action, 1, Object.class),
+                    handle);
+        }
+
+        return new MethodHandleRules<>(MethodHandles.guardWithTest(IS_NULL, returnDefault, handle));
+    }
+
+    public T orElse(S value, T defaultValue) {
+        return cast(invoke(value, defaultValue));
+    }
+
+    public T orElseGet(S value, Supplier<? extends T> supplier) {
+        Objects.requireNonNull(supplier);
+
+        var result = invoke(value, ConditionalRules.NO_RESULT);
+
+        return result == ConditionalRules.NO_RESULT ? supplier.get() : cast(result);
+    }
+
+    public <X extends Throwable> T orElseThrow(S value, Supplier<? extends X> exceptionSupplier) throws X {
+        Objects.requireNonNull(exceptionSupplier);
+
+        var result = invoke(value, ConditionalRules.NO_RESULT);
+
+        if (result == ConditionalRules.NO_RESULT) {
+            throw exceptionSupplier.get();
+        }
+
+        return cast(result);
+    }
+
+    private Object invoke(Object value, Object defaultValue) {
+        try {
+            return (Object) handle.invokeExact(value, defaultValue);
+        } catch (RuntimeException | Error e) {
+            throw e;
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private T cast(Object result) {
+        return (T) result;
+    }
+}
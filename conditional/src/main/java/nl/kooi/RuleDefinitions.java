@@ -0,0 +1,101 @@
+package nl.kooi;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+import static nl.kooi.Conditional.ConditionalAction;
+
+/**
+ * Named conditions and actions from which a rule chain can be built by a declarative definition. A definition has one
+ * rule per line in the form {@code condition -> action}, where both sides refer to a registered name. Rules keep the
+ * order of the lines, blank lines are ignored and a {@code #} starts a comment.
+ */
+public final class RuleDefinitions<S, T> {
+
+    private static final String ARROW = "->";
+
+    private final Map<String, Predicate<S>> conditions;
+    private final Map<String, Function<S, T>> actions;
+
+    private RuleDefinitions(Map<String, Predicate<S>> conditions, Map<String, Function<S, T>> actions) {
+        this.conditions = conditions;
+        this.actions = actions;
+    }
+
+    public static <S, T> RuleDefinitions<S, T> create() {
+        return new RuleDefinitions<>(Map.of(), Map.of());
+    }
+
+    public RuleDefinitions<S, T> condition(String name, Predicate<S> condition) {
+        return new RuleDefinitions<>(with(conditions, name, condition), actions);
+    }
+
+    public RuleDefinitions<S, T> action(String name, Function<S, T> action) {
+        return new RuleDefinitions<>(conditions, with(actions, name, action));
+    }
+
+    public ConditionalRules<S, T> load(Path file) throws IOException {
+        return parse(Files.readAllLines(file));
+    }
+
+    @SuppressWarnings("unchecked")
+    public ConditionalRules<S, T> parse(List<String> lines) {
+        var rules = (ConditionalAction<S, T>[]) new ConditionalAction<?, ?>[lines.size()];
+        var ruleCount = 0;
+
+        for (int i = 0; i < lines.size(); i++) {
+            var line = stripComment(lines.get(i));
+
+            if (line.isEmpty()) {
+                continue;
+            }
+
+            var arrow = line.indexOf(ARROW);
+
+            if (arrow < 0) {
+                throw new IllegalArgumentException("Line " + (i + 1) + " should have the form 'condition -> action', but was '" + line + "'");
+            }
+
+            var condition = lookup(conditions, "condition", line.substring(0, arrow).strip(), i);
+            var action = lookup(actions, "action", line.substring(arrow + ARROW.length()).strip(), i);
+
+            rules[ruleCount++] = new ConditionalAction<>(condition, action);
+        }
+
+        return ConditionalRules.firstMatching(Arrays.copyOf(rules, ruleCount));
+    }
+
+    private static String stripComment(String line) {
+        var comment = line.indexOf('#');
+
+        return (comment < 0 ? line : line.substring(0, comment)).strip();
+    }
+
+    private static <V> V lookup(Map<String, V> registered, String kind, String name, int lineIndex) {
+        var value = registered.get(name);
+
+        if (value == null) {
+            throw new IllegalArgumentException("Line " + (lineIndex + 1) + " refers to unknown " + kind + " '" + name + "'");
+        }
+
+        return value;
+    }
+
+    private static <V> Map<String, V> with(Map<String, V> registered, String name, V value) {
+        Objects.requireNonNull(name);
+        Objects.requireNonNull(value);
+
+        var updated = new HashMap<>(registered);
+        updated.put(name, value);
+
+        return Map.copyOf(updated);
+    }
+}
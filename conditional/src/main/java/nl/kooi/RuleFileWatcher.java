@@ -0,0 +1,72 @@
+package nl.kooi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.Path;
+import java.nio.file.WatchService;
+import java.util.function.Consumer;
+
+import static java.nio.file.StandardWatchEventKinds.ENTRY_CREATE;
+import static java.nio.file.StandardWatchEventKinds.ENTRY_MODIFY;
+
+final class RuleFileWatcher implements Closeable {
+
+    private final WatchService watchService;
+    private final Thread thread;
+
+    private RuleFileWatcher(WatchService watchService, Thread thread) {
+        this.watchService = watchService;
+        this.thread = thread;
+    }
+
+    static RuleFileWatcher start(Path file, Reload reload, Consumer<? super Exception> reloadFailureHandler) throws IOException {
+        var absoluteFile = file.toAbsolutePath();
+        var directory = absoluteFile.getParent();
+        var watchService = directory.getFileSystem().newWatchService();
+
+        directory.register(watchService, ENTRY_CREATE, ENTRY_MODIFY);
+
+        var thread = Thread.ofPlatform()
+                .name("rule-file-watcher-" + absoluteFile.getFileName())
+                .daemon()
+                .start(() -> watch(watchService, absoluteFile.getFileName(), reload, reloadFailureHandler));
+
+        return new RuleFileWatcher(watchService, thread);
+    }
+
+    private static void watch(WatchService watchService,
+                              Path fileName,
+                              Reload reload,
+                              Consumer<? super Exception> reloadFailureHandler) {
+        try {
+            while (true) {
+                var key = watchService.take();
+                var changed = key.pollEvents().stream().anyMatch(event -> fileName.equals(event.context()));
+
+                if (changed) {
+                    try {
+                        reload.run();
+                    } catch (IOException | RuntimeException e) {
+                        reloadFailureHandler.accept(e);
+                    }
+                }
+
+                key.reset();
+            }
+        } catch (InterruptedException | ClosedWatchServiceException e) {
+            // closed
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+        thread.interrupt();
+    }
+
+    interface Reload {
+
+        void run() throws IOException;
+    }
+}
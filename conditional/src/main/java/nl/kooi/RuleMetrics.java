@@ -0,0 +1,68 @@
+package nl.kooi;
+
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.IntStream;
+
+public final class RuleMetrics {
+
+    private final String name;
+    private final LongAdder[] hits;
+    private final LongAdder noMatches = new LongAdder();
+    private final LatencyHistogram[] predicateLatencies;
+    private final LatencyHistogram[] actionLatencies;
+
+    RuleMetrics(String name, int ruleCount) {
+        this.name = name;
+        this.hits = IntStream.range(0, ruleCount)
+                .mapToObj(i -> new LongAdder())
+                .toArray(LongAdder[]::new);
+        this.predicateLatencies = IntStream.range(0, ruleCount)
+                .mapToObj(i -> new LatencyHistogram())
+                .toArray(LatencyHistogram[]::new);
+        this.actionLatencies = IntStream.range(0, ruleCount)
+                .mapToObj(i -> new LatencyHistogram())
+                .toArray(LatencyHistogram[]::new);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Snapshot snapshot() {
+        var rules = IntStream.range(0, hits.length)
+                .mapToObj(rule -> new RuleSnapshot(rule,
+                        hits[rule].sum(),
+                        predicateLatencies[rule].snapshot(),
+                        actionLatencies[rule].snapshot()))
+                .toList();
+
+        return new Snapshot(name, noMatches.sum(), rules);
+    }
+
+    void recordMatch(int rule) {
+        if (rule < 0) {
+            noMatches.increment();
+        } else {
+            hits[rule].increment();
+        }
+    }
+
+    void recordPredicate(int rule, long nanos) {
+        predicateLatencies[rule].record(nanos);
+    }
+
+    void recordAction(int rule, long nanos) {
+        actionLatencies[rule].record(nanos);
+    }
+
+    public record Snapshot(String name, long noMatches, List<RuleSnapshot> rules) {
+    }
+
+    /**
+     * Latency bucket {@code i} counts the evaluations that took less than {@code 2^i} and at least
+     * {@code 2^(i - 1)} nanoseconds; the last bucket also holds everything slower.
+     */
+    public record RuleSnapshot(int rule, long hits, long[] predicateLatencies, long[] actionLatencies) {
+    }
+}
@@ -0,0 +1,126 @@
+package nl.kooi;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static nl.kooi.Conditional.ConditionalAction;
+
+final class SpeculativeMatch {
+
+    private static final int PENDING = 0;
+    private static final int MATCHED = 1;
+    private static final int NOT_MATCHED = 2;
+    private static final int FAILED = 3;
+
+    private final int[] states;
+    private final Throwable[] failures;
+    private final Thread[] threads;
+    private final CompletableFuture<Integer> matchingIndex = new CompletableFuture<>();
+    private int firstUndecided;
+    private boolean decided;
+    private volatile boolean cancelled;
+
+    private SpeculativeMatch(int ruleCount) {
+        this.states = new int[ruleCount];
+        this.failures = new Throwable[ruleCount];
+        this.threads = new Thread[ruleCount];
+    }
+
+    static <S> CompletableFuture<Integer> start(ConditionalAction<S, ?>[] actions, S value, Duration timeout) {
+        var match = new SpeculativeMatch(actions.length);
+
+        match.matchingIndex
+                .orTimeout(timeout.toNanos(), TimeUnit.NANOSECONDS)
+                .whenComplete((index, failure) -> match.cancel());
+
+        if (actions.length == 0) {
+            match.matchingIndex.complete(ConditionalRules.NO_MATCH);
+            return match.matchingIndex;
+        }
+
+        for (int i = 0; i < actions.length; i++) {
+            var rule = i;
+            var condition = actions[i].condition();
+
+            match.threads[i] = Thread.ofVirtual()
+                    .name("conditional-rule-" + i)
+                    .unstarted(() -> match.test(rule, condition, value));
+        }
+
+        match.startAll();
+
+        return match.matchingIndex;
+    }
+
+    /**
+     * Starts the rule threads without holding the monitor, so rules that finish early are not blocked in
+     * {@link #decide} while later threads are still being started. A thread that starts after a cancellation has
+     * missed its interrupt, so it checks {@code cancelled} itself before testing its condition.
+     */
+    private void startAll() {
+        for (var thread : threads) {
+            if (cancelled) {
+                return;
+            }
+
+            thread.start();
+        }
+    }
+
+    private <S> void test(int rule, Predicate<S> condition, S value) {
+        if (cancelled) {
+            return;
+        }
+
+        try {
+            complete(rule, condition.test(value) ? MATCHED : NOT_MATCHED, null);
+        } catch (Throwable failure) {
+            complete(rule, FAILED, failure);
+        }
+    }
+
+    /**
+     * Completes the future outside the monitor, so that dependent stages do not run while the other rule threads are
+     * blocked in {@link #decide}. Once decided, no other thread changes {@code firstUndecided} or the failures.
+     */
+    private void complete(int rule, int state, Throwable failure) {
+        var decision = decide(rule, state, failure);
+
+        if (decision == FAILED) {
+            matchingIndex.completeExceptionally(failures[firstUndecided]);
+        } else if (decision != PENDING) {
+            matchingIndex.complete(decision == MATCHED ? firstUndecided : ConditionalRules.NO_MATCH);
+        }
+    }
+
+    private synchronized int decide(int rule, int state, Throwable failure) {
+        if (decided || matchingIndex.isDone()) {
+            return PENDING;
+        }
+
+        states[rule] = state;
+        failures[rule] = failure;
+
+        while (firstUndecided < states.length && states[firstUndecided] == NOT_MATCHED) {
+            firstUndecided++;
+        }
+
+        var decision = firstUndecided == states.length ? NOT_MATCHED : states[firstUndecided];
+
+        decided = decision != PENDING;
+
+        return decision;
+    }
+
+    private synchronized void cancel() {
+        cancelled = true;
+
+        for (int i = 0; i < threads.length; i++) {
+            if (states[i] == PENDING && threads[i] != null && threads[i].isAlive()) {
+                threads[i].interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,17 @@
+package nl.kooi;
+
+import java.io.Serial;
+
+/**
+ * An exception without a stack trace or suppressed exceptions, meant to be created once and thrown many times with
+ * {@code orElseThrowReused}, so that a frequent no-match does not pay for {@link Throwable#fillInStackTrace()}.
+ */
+public class StacklessException extends RuntimeException {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public StacklessException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -0,0 +1,87 @@
+package nl.kooi;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.file.Path;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Holds compiled rules that can be replaced at runtime. Compiled rules are immutable, so a swap only publishes a new
+ * reference: every evaluation reads that reference once and then runs on one complete rule chain, without locking and
+ * without ever observing a chain that is still being built.
+ */
+public final class SwappableRules<S, T> {
+
+    private static final VarHandle RULES;
+
+    static {
+        try {
+            RULES = MethodHandles.lookup().findVarHandle(SwappableRules.class, "rules", ConditionalRules.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private volatile ConditionalRules<S, T> rules;
+
+    private SwappableRules(ConditionalRules<S, T> rules) {
+        this.rules = rules;
+    }
+
+    public static <S, T> SwappableRules<S, T> of(ConditionalRules<S, T> rules) {
+        return new SwappableRules<>(Objects.requireNonNull(rules));
+    }
+
+    public ConditionalRules<S, T> current() {
+        return rules;
+    }
+
+    /**
+     * Replaces the current rules and returns the rules they replaced.
+     */
+    @SuppressWarnings("unchecked")
+    public ConditionalRules<S, T> swap(ConditionalRules<S, T> newRules) {
+        return (ConditionalRules<S, T>) RULES.getAndSet(this, Objects.requireNonNull(newRules));
+    }
+
+    /**
+     * Replaces the current rules only if they are still {@code expectedRules}, so that concurrent writers that derive
+     * new rules from the current ones do not overwrite each other.
+     */
+    public boolean compareAndSwap(ConditionalRules<S, T> expectedRules, ConditionalRules<S, T> newRules) {
+        return RULES.compareAndSet(this, expectedRules, Objects.requireNonNull(newRules));
+    }
+
+    /**
+     * Loads the rules from {@code file} and swaps them in, and then again every time the file changes until the
+     * returned watcher is closed. When a changed file cannot be loaded the current rules are kept and the exception
+     * is passed to {@code reloadFailureHandler}. To avoid loading a partially written file, write the new definition
+     * to a temporary file in the same directory and move it over {@code file}.
+     */
+    public Closeable watch(Path file,
+                           RuleDefinitions<S, T> definitions,
+                           Consumer<? super Exception> reloadFailureHandler) throws IOException {
+        Objects.requireNonNull(definitions);
+        Objects.requireNonNull(reloadFailureHandler);
+
+        swap(definitions.load(file));
+
+        return RuleFileWatcher.start(file, () -> swap(definitions.load(file)), reloadFailureHandler);
+    }
+
+    public T orElse(S value, T defaultValue) {
+        return rules.orElse(value, defaultValue);
+    }
+
+    public T orElseGet(S value, Supplier<? extends T> supplier) {
+        return rules.orElseGet(value, supplier);
+    }
+
+    public <X extends Throwable> T orElseThrow(S value, Supplier<? extends X> exceptionSupplier) throws X {
+        return rules.orElseThrow(value, exceptionSupplier);
+    }
+}
@@ -0,0 +1,34 @@
+package nl.kooi;
+
+import java.lang.management.ManagementFactory;
+
+final class Allocations {
+
+    private static final int EVALUATIONS = 100_000;
+
+    private Allocations() {
+    }
+
+    /**
+     * Returns the bytes the current thread allocates per run of {@code evaluation}, measured after the same number of
+     * warm-up runs so that the JIT has compiled it.
+     */
+    static long allocatedBytesPerEvaluation(Runnable evaluation) {
+        var threadMXBean = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var threadId = Thread.currentThread().threadId();
+
+        evaluate(evaluation);
+
+        var before = threadMXBean.getThreadAllocatedBytes(threadId);
+        evaluate(evaluation);
+        var after = threadMXBean.getThreadAllocatedBytes(threadId);
+
+        return (after - before) / EVALUATIONS;
+    }
+
+    private static void evaluate(Runnable evaluation) {
+        for (int i = 0; i < EVALUATIONS; i++) {
+            evaluation.run();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+import static nl.kooi.Conditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CachedConditionalRulesTest {
+
+    private final AtomicInteger evaluations = new AtomicInteger();
+
+    @Nested
+    @DisplayName("Tests for caching the outcome of compiled rules")
+    class Caching {
+
+        @Test
+        @DisplayName("Caching: when the same value is evaluated twice, then the rules are only evaluated once.")
+        void sameValueIsEvaluatedOnce() {
+            var rules = countingRules().cached(100);
+
+            assertThat(rules.orElse(2, 0)).isEqualTo(4);
+            assertThat(rules.orElse(2, 0)).isEqualTo(4);
+            assertThat(evaluations.get()).isEqualTo(1);
+            assertThat(rules.statistics()).isEqualTo(new CachedConditionalRules.CacheStatistics(1, 1, 0));
+        }
+
+        @Test
+        @DisplayName("Caching: when a matching function evaluates to null, then the cached null is returned instead of the default value.")
+        void cachedNullIsNotTreatedAsNoMatch() {
+            var rules = ConditionalRules.firstMatching(applyIf(counting(isEven()), i -> (Integer) null))
+                    .cached(100);
+
+            assertThat(rules.orElse(2, 0)).isNull();
+            assertThat(rules.orElse(2, 0)).isNull();
+            assertThat(evaluations.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Caching: when no condition matches, then the no-match is cached and the default value of each call is returned.")
+        void noMatchIsCachedAndDefaultIsEvaluatedPerCall() {
+            var rules = countingRules().cached(100);
+
+            assertThat(rules.orElse(3, 0)).isEqualTo(0);
+            assertThat(rules.orElseGet(3, () -> 9)).isEqualTo(9);
+            assertThrows(IllegalArgumentException.class, () -> rules.orElseThrow(3, IllegalArgumentException::new));
+            assertThat(evaluations.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Caching: when a null is passed as the object to be evaluated, then the default value is returned without caching.")
+        void nullValueIsNotCached() {
+            var rules = countingRules().cached(100);
+
+            assertThat(rules.orElse(null, 0)).isEqualTo(0);
+            assertThat(rules.statistics().missCount()).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for evicting and expiring cached outcomes")
+    class Eviction {
+
+        @Test
+        @DisplayName("Eviction: when the cache is full, then the least recently used value is evicted.")
+        void leastRecentlyUsedValueIsEvicted() {
+            var rules = countingRules().cached(1);
+
+            rules.orElse(2, 0);
+            rules.orElse(4, 0);
+            rules.orElse(2, 0);
+
+            assertThat(evaluations.get()).isEqualTo(3);
+            assertThat(rules.statistics().evictionCount()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Eviction: when more values are evaluated than the maximum size, then the cache never holds more than the maximum size.")
+        void cacheIsBounded() {
+            var rules = countingRules().cached(64);
+
+            IntStream.range(0, 1_000).forEach(i -> rules.orElse(i, 0));
+
+            var statistics = rules.statistics();
+            assertThat(statistics.missCount() - statistics.evictionCount()).isLessThanOrEqualTo(64);
+        }
+
+        @Test
+        @DisplayName("Eviction: when the maximum size is not a power of two, then the cache never holds more than the maximum size.")
+        void cacheIsBoundedForAnySize() {
+            for (var maximumSize : new int[]{3, 20, 100, 1_001}) {
+                var rules = countingRules().cached(maximumSize);
+
+                for (int i = 0; i < 5_000; i++) {
+                    rules.orElse(i, 0);
+
+                    var statistics = rules.statistics();
+                    assertThat(statistics.missCount() - statistics.evictionCount()).isLessThanOrEqualTo(maximumSize);
+                }
+
+                var statistics = rules.statistics();
+                assertThat(statistics.missCount() - statistics.evictionCount()).isEqualTo(maximumSize);
+            }
+        }
+
+        @Test
+        @DisplayName("Eviction: when a small cache is filled with values whose hashes collide, then all of them stay cached.")
+        void collidingValuesFillSmallCache() {
+            var rules = countingRules().cached(20);
+
+            IntStream.range(0, 19).forEach(i -> rules.orElse(i * 16, 0));
+            IntStream.range(0, 19).forEach(i -> rules.orElse(i * 16, 0));
+
+            assertThat(rules.statistics()).isEqualTo(new CachedConditionalRules.CacheStatistics(19, 19, 0));
+        }
+
+        @Test
+        @DisplayName("Eviction: when a cache of two is filled with two values, then both stay cached.")
+        void twoValuesFitCacheOfTwo() {
+            var rules = countingRules().cached(2);
+
+            rules.orElse(2, 0);
+            rules.orElse(4, 0);
+            rules.orElse(2, 0);
+            rules.orElse(4, 0);
+
+            assertThat(evaluations.get()).isEqualTo(2);
+            assertThat(rules.statistics().evictionCount()).isZero();
+        }
+
+        @Test
+        @DisplayName("Eviction: when a cached outcome is older than the expiry, then the rules are evaluated again.")
+        void expiredValueIsEvaluatedAgain() {
+            var now = new AtomicLong();
+            var rules = new CachedConditionalRules<>(countingRules(), 100, 1_000, now::get);
+
+            rules.orElse(2, 0);
+            now.set(999);
+            rules.orElse(2, 0);
+            now.set(1_000);
+            rules.orElse(2, 0);
+
+            assertThat(evaluations.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("Eviction: when the cache is used from multiple threads, then every thread gets the outcome of the rules.")
+        void cacheCanBeSharedBetweenThreads() {
+            var rules = countingRules().cached(128);
+
+            IntStream.range(0, 100_000)
+                    .parallel()
+                    .forEach(i -> assertThat(rules.orElse(i % 256, -1)).isEqualTo(i % 2 == 0 ? (i % 256) * 2 : -1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for wrong use of the cached rules")
+    class ExceptionHandlingTests {
+
+        @Test
+        @DisplayName("Exception Handling: when the maximum size is smaller than 1, an IllegalArgumentException is thrown.")
+        void maximumSizeShouldBePositive() {
+            assertThrows(IllegalArgumentException.class, () -> countingRules().cached(0));
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when a null Supplier is passed to orElseGet, an NPE is thrown.")
+        void supplierShouldNotBeNull() {
+            assertThrows(NullPointerException.class, () -> countingRules().cached(1).orElseGet(2, null));
+        }
+    }
+
+    private ConditionalRules<Integer, Integer> countingRules() {
+        return ConditionalRules.firstMatching(applyIf(counting(isEven()), timesTwo()));
+    }
+
+    private Predicate<Integer> counting(Predicate<Integer> predicate) {
+        return i -> {
+            evaluations.incrementAndGet();
+            return predicate.test(i);
+        };
+    }
+
+    private static UnaryOperator<Integer> timesTwo() {
+        return i -> i * 2;
+    }
+
+    private static Predicate<Integer> isEven() {
+        return i -> i % 2 == 0;
+    }
+}
@@ -0,0 +1,366 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Flow;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+
+import static nl.kooi.Conditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConditionalProcessorTest {
+
+    private final ConditionalRules<Integer, String> rules = ConditionalRules.firstMatching(
+            applyIf(isEven(), i -> "even " + i),
+            applyIf(i -> i % 3 == 0, i -> "three " + i));
+
+    @Nested
+    @DisplayName("Tests for processing a stream of items")
+    class Processing {
+
+        @Test
+        @DisplayName("Processing: when items are published, then the rules are applied and items without a match get the default value.")
+        void itemsAreProcessedInOrder() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var processor = rules.toProcessor(i -> "none " + i);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emit(1, 2, 3, 4);
+            publisher.complete();
+
+            assertThat(subscriber.items).containsExactly("none 1", "even 2", "three 3", "even 4");
+            assertThat(subscriber.completed).isTrue();
+        }
+
+        @Test
+        @DisplayName("Processing: when a no-match subscriber is given, then items without a match are routed to it.")
+        void noMatchItemsAreRouted() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var noMatch = new TestSubscriber<Integer>(Long.MAX_VALUE);
+            var processor = rules.toProcessor(noMatch);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emit(1, 2, 5, 6, 7);
+            publisher.complete();
+
+            assertThat(subscriber.items).containsExactly("even 2", "even 6");
+            assertThat(noMatch.items).containsExactly(1, 5, 7);
+            assertThat(subscriber.completed).isTrue();
+            assertThat(noMatch.completed).isTrue();
+        }
+
+        @Test
+        @DisplayName("Processing: when the no-match subscriber has no demand, then its items are buffered and matching items are still emitted.")
+        void noMatchDemandIsRespected() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var noMatch = new TestSubscriber<Integer>(0);
+            var processor = rules.toProcessor(noMatch);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emit(2, 1, 4, 5);
+            publisher.complete();
+
+            assertThat(subscriber.items).containsExactly("even 2", "even 4");
+            assertThat(subscriber.completed).isTrue();
+            assertThat(noMatch.items).isEmpty();
+
+            noMatch.subscription.request(1);
+
+            assertThat(noMatch.items).containsExactly(1);
+            assertThat(noMatch.completed).isFalse();
+
+            noMatch.subscription.request(1);
+
+            assertThat(noMatch.items).containsExactly(1, 5);
+            assertThat(noMatch.completed).isTrue();
+        }
+
+        @Test
+        @DisplayName("Processing: when the buffer of the no-match subscriber is full, then matching items wait until it has demand.")
+        void fullNoMatchBufferHoldsUpSubscriber() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var noMatch = new TestSubscriber<Integer>(0);
+            var processor = rules.toProcessor(noMatch).batched(1);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emit(1, 5, 7, 2);
+
+            assertThat(subscriber.items).isEmpty();
+
+            noMatch.subscription.request(1);
+
+            assertThat(noMatch.items).containsExactly(1);
+            assertThat(subscriber.items).containsExactly("even 2");
+        }
+
+        @Test
+        @DisplayName("Processing: when items are batched and evaluated in parallel, then the results keep the arrival order.")
+        void parallelProcessingKeepsOrder() throws InterruptedException {
+            var executor = Executors.newFixedThreadPool(4);
+            var slowRules = ConditionalRules.firstMatching(applyIf((Integer i) -> {
+                sleepRandomly();
+                return true;
+            }, i -> i * 10));
+            var processor = slowRules.toProcessor(i -> -1).batched(8).parallel(executor, 4);
+            var subscriber = new TestSubscriber<Integer>(Long.MAX_VALUE);
+            var publisher = new TestPublisher();
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+
+            while (publisher.emitted < 200) {
+                publisher.emitRequested(200);
+                Thread.onSpinWait();
+            }
+            publisher.complete();
+
+            assertThat(subscriber.done.await(10, TimeUnit.SECONDS)).isTrue();
+            assertThat(subscriber.items).containsExactlyElementsOf(IntStream.range(0, 200).mapToObj(i -> i * 10).toList());
+            executor.shutdown();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for backpressure")
+    class Backpressure {
+
+        @Test
+        @DisplayName("Backpressure: when the subscriber requests nothing, then no more than the bounded buffer is requested from upstream.")
+        void upstreamDemandIsBounded() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(0);
+            var processor = rules.toProcessor(i -> "none").batched(4);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emitRequested(100);
+
+            assertThat(publisher.requests).containsExactly(8L);
+            assertThat(subscriber.items).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Backpressure: when the subscriber requests items, then exactly that many are emitted and upstream is asked for more in batches.")
+        void demandDrivesEmission() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(0);
+            var processor = rules.toProcessor(i -> "none").batched(4);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emitRequested(100);
+            subscriber.subscription.request(3);
+
+            assertThat(subscriber.items).containsExactly("even 0", "none", "even 2");
+            assertThat(publisher.requests).containsExactly(8L);
+
+            subscriber.subscription.request(1);
+            publisher.emitRequested(100);
+
+            assertThat(subscriber.items).hasSize(4);
+            assertThat(publisher.requests).containsExactly(8L, 4L);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for wrong use of the processor")
+    class ExceptionHandlingTests {
+
+        @Test
+        @DisplayName("Exception Handling: when a rule throws, then the subscriber receives the exception and upstream is cancelled.")
+        void failingRuleCancelsUpstream() {
+            var failingRules = ConditionalRules.firstMatching(applyIf((Integer i) -> {
+                throw new IllegalStateException("broken rule");
+            }, i -> "never"));
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var processor = failingRules.toProcessor(i -> "none");
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emit(1);
+
+            assertThat(subscriber.error.get()).isInstanceOf(IllegalStateException.class).hasMessage("broken rule");
+            assertThat(publisher.cancelled).isTrue();
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when the executor rejects a batch, then the subscriber receives the rejection and upstream is cancelled.")
+        void rejectedBatchFailsProcessor() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var processor = rules.toProcessor(i -> "none").parallel(task -> {
+                throw new RejectedExecutionException("shut down");
+            }, 2);
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            publisher.emit(1);
+
+            assertThat(subscriber.error.get()).isInstanceOf(RejectedExecutionException.class).hasMessage("shut down");
+            assertThat(publisher.cancelled).isTrue();
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when upstream fails, then the error is passed on to the subscriber.")
+        void upstreamErrorIsPassedOn() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(Long.MAX_VALUE);
+            var processor = rules.toProcessor(i -> "none");
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            processor.onError(new IllegalArgumentException("upstream"));
+
+            assertThat(subscriber.error.get()).hasMessage("upstream");
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when a second subscriber subscribes, then it receives an IllegalStateException.")
+        void onlyOneSubscriber() {
+            var processor = rules.toProcessor(i -> "none");
+            var second = new TestSubscriber<String>(1);
+
+            processor.subscribe(new TestSubscriber<>(1));
+            processor.subscribe(second);
+
+            assertThat(second.error.get()).isInstanceOf(IllegalStateException.class);
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when the subscriber requests a non-positive amount, then it receives an IllegalArgumentException.")
+        void nonPositiveRequest() {
+            var publisher = new TestPublisher();
+            var subscriber = new TestSubscriber<String>(0);
+            var processor = rules.toProcessor(i -> "none");
+
+            publisher.subscribe(processor);
+            processor.subscribe(subscriber);
+            subscriber.subscription.request(0);
+
+            assertThat(subscriber.error.get()).isInstanceOf(IllegalArgumentException.class);
+            assertThat(publisher.cancelled).isTrue();
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when the batch size is not positive, then an IllegalArgumentException is thrown.")
+        void batchSizeShouldBePositive() {
+            assertThrows(IllegalArgumentException.class, () -> rules.toProcessor(i -> "none").batched(0));
+        }
+    }
+
+    private static void sleepRandomly() {
+        try {
+            Thread.sleep(0, ThreadLocalRandom.current().nextInt(100_000));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static Predicate<Integer> isEven() {
+        return i -> i % 2 == 0;
+    }
+
+    private static final class TestPublisher implements Flow.Publisher<Integer> {
+
+        private final List<Long> requests = new CopyOnWriteArrayList<>();
+        private Flow.Subscriber<? super Integer> subscriber;
+        private volatile long requested;
+        private volatile int emitted;
+        private volatile boolean cancelled;
+
+        @Override
+        public void subscribe(Flow.Subscriber<? super Integer> subscriber) {
+            this.subscriber = subscriber;
+            subscriber.onSubscribe(new Flow.Subscription() {
+                @Override
+                public void request(long n) {
+                    requests.add(n);
+                    requested += n;
+                }
+
+                @Override
+                public void cancel() {
+                    cancelled = true;
+                }
+            });
+        }
+
+        void emit(Integer... items) {
+            for (var item : items) {
+                subscriber.onNext(item);
+                emitted++;
+            }
+        }
+
+        void emitRequested(int limit) {
+            while (emitted < Math.min(requested, limit)) {
+                subscriber.onNext(emitted++);
+            }
+        }
+
+        void complete() {
+            subscriber.onComplete();
+        }
+    }
+
+    private static final class TestSubscriber<T> implements Flow.Subscriber<T> {
+
+        private final List<T> items = new CopyOnWriteArrayList<>();
+        private final AtomicReference<Throwable> error = new AtomicReference<>();
+        private final CountDownLatch done = new CountDownLatch(1);
+        private final long initialRequest;
+        private Flow.Subscription subscription;
+        private volatile boolean completed;
+
+        private TestSubscriber(long initialRequest) {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+
+            if (initialRequest > 0) {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(T item) {
+            items.add(item);
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            error.set(throwable);
+            done.countDown();
+        }
+
+        @Override
+        public void onComplete() {
+            completed = true;
+            done.countDown();
+        }
+    }
+}
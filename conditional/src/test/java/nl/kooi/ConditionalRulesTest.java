@@ -0,0 +1,947 @@
+package nl.kooi;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static nl.kooi.Allocations.allocatedBytesPerEvaluation;
+import static nl.kooi.Conditional.applyIf;
+import static nl.kooi.Conditional.applyIfInstanceOf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ConditionalRulesTest {
+
+    @Nested
+    @DisplayName("Tests for reusing compiled rules")
+    class Reuse {
+
+        @Test
+        @DisplayName("Reuse: when the same rules are applied to multiple values, then each value is evaluated on its own.")
+        void rulesAreAppliedToMultipleValues() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(isEven(), timesTwo()),
+                    applyIf(isEven().negate(), plus(1)));
+
+            assertThat(rules.orElse(2, 0)).isEqualTo(4);
+            assertThat(rules.orElse(3, 0)).isEqualTo(4);
+            assertThat(rules.orElse(10, 0)).isEqualTo(20);
+        }
+
+        @Test
+        @DisplayName("Reuse: when the rules contain a map, then the map function is applied to the result of the matching function.")
+        void rulesWithMapAreAppliedToMultipleValues() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()))
+                    .map(i -> String.format("And the number is: %d", i));
+
+            assertThat(rules.orElse(2, "No outcome")).isEqualTo("And the number is: 4");
+            assertThat(rules.orElse(3, "No outcome")).isEqualTo("No outcome");
+        }
+
+        @Test
+        @DisplayName("Reuse: when the rules contain multiple maps, then they are applied in order and only to the result of the matching function.")
+        void mapFunctionsAreAppliedInOrderOnlyToTheMatchedResult() {
+            var mapCalls = new AtomicInteger();
+            var rules = ConditionalRules.firstMatching(
+                            applyIf(returnFalse(), plus(1)),
+                            applyIf(isEven(), timesTwo()),
+                            applyIf(returnTrue(), plus(3)))
+                    .map(i -> {
+                        mapCalls.incrementAndGet();
+                        return i + 1;
+                    })
+                    .map(i -> i * 10)
+                    .map(Object::toString);
+
+            assertThat(rules.orElse(2, "No outcome")).isEqualTo("50");
+            assertThat(mapCalls.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Reuse: when a map is added, then the rules it was derived from are not affected.")
+        void mapDoesNotAffectTheOriginalRules() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+            var mappedRules = rules.map(i -> i + 1);
+
+            assertThat(rules.orElse(2, 0)).isEqualTo(4);
+            assertThat(mappedRules.orElse(2, 0)).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Reuse: when the rules are turned into a Conditional, then it behaves as the equivalent firstMatching.")
+        void rulesCanBeTurnedIntoConditional() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+
+            assertThat(rules.of(2).orElse(0)).isEqualTo(4);
+            assertThat(rules.of(3).orElse(0)).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("Reuse: when the varargs array is modified after compiling, then the compiled rules are not affected.")
+        void compiledRulesAreNotAffectedByModifyingTheInput() {
+            @SuppressWarnings("unchecked")
+            Conditional.ConditionalAction<Integer, Integer>[] actions = new Conditional.ConditionalAction[]{applyIf(isEven(), timesTwo())};
+            var rules = ConditionalRules.firstMatching(actions);
+
+            actions[0] = applyIf(isEven(), plus(1));
+
+            assertThat(rules.orElse(2, 0)).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("Reuse: when the rules are evaluated from multiple threads, then every thread gets its own outcome.")
+        void rulesCanBeSharedBetweenThreads() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(isEven(), timesTwo()),
+                    applyIf(isEven().negate(), plus(1)));
+
+            var outcomes = IntStream.range(0, 10_000)
+                    .parallel()
+                    .map(i -> rules.orElse(i, -1))
+                    .toArray();
+
+            IntStream.range(0, 10_000)
+                    .forEach(i -> assertThat(outcomes[i]).isEqualTo(i % 2 == 0 ? i * 2 : i + 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for the terminal operations of compiled rules")
+    class TerminalOperations {
+
+        @Test
+        @DisplayName("orElse: when a null is passed as the object to be evaluated, then the default value is returned.")
+        void nullValueReturnsDefault() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+
+            assertThat(rules.orElse(null, 0)).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("orElse: when a condition matches and the matching function evaluates to null, then a null is being returned and the default value is ignored.")
+        void matchingFunctionReturningNullIsKept() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), i -> (Integer) null));
+
+            assertThat(rules.orElse(2, 0)).isNull();
+        }
+
+        @Test
+        @DisplayName("orElseGet: when a condition matches, then the default Supplier is not evaluated.")
+        void supplierIsNotEvaluatedOnMatch() {
+            var supplierCalls = new AtomicInteger();
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+
+            var outcome = rules.orElseGet(2, () -> supplierCalls.incrementAndGet());
+
+            assertThat(outcome).isEqualTo(4);
+            assertThat(supplierCalls.get()).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("orElseGet: when no condition matches, then the value evaluated from the default Supplier is returned.")
+        void supplierIsEvaluatedOnNoMatch() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+
+            assertThat(rules.orElseGet(3, () -> 9)).isEqualTo(9);
+        }
+
+        @Test
+        @DisplayName("result: when compiled rules are evaluated, then a Matched or the shared NoMatch result is returned.")
+        void resultOfCompiledRules() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+
+            assertThat(rules.result(2)).isEqualTo(new ConditionalResult.Matched<>(4));
+            assertThat(rules.result(3)).isSameAs(ConditionalResult.noMatch());
+            assertThat(rules.result(null)).isSameAs(ConditionalResult.noMatch());
+        }
+
+        @Test
+        @DisplayName("orElseThrowReused: when no condition matches, then the given exception instance is thrown.")
+        void reusedExceptionOfCompiledRules() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+            var noMatch = new StacklessException("odd");
+
+            assertThat(rules.orElseThrowReused(2, noMatch)).isEqualTo(4);
+            assertThat(assertThrows(StacklessException.class, () -> rules.orElseThrowReused(3, noMatch))).isSameAs(noMatch);
+        }
+
+        @Test
+        @DisplayName("orElseThrow: when multiple conditions would return true, then only the function belonging to the first condition that evaluated to true is applied.")
+        void firstMatchWins() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(returnFalse(), plus(1)),
+                    applyIf(returnTrue(), plus(2)),
+                    applyIf(returnTrue(), plus(3)));
+
+            assertThat(rules.orElseThrow(0, IllegalArgumentException::new)).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("orElseThrow: when no condition matches, then the exception supplier is evaluated (throwing an exception).")
+        void noMatchThrows() {
+            var rules = ConditionalRules.firstMatching(applyIf(returnFalse(), plus(1)));
+
+            assertThrows(IllegalArgumentException.class, () -> rules.orElseThrow(0, IllegalArgumentException::new));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for applying compiled rules to many values at once")
+    class Batch {
+
+        private final ConditionalRules<Integer, String> rules = ConditionalRules.firstMatching(
+                        applyIf(isEven(), timesTwo()))
+                .map(Object::toString);
+
+        @Test
+        @DisplayName("Batch: when the rules are applied to a List, then the results keep the order of the input and non-matching elements get their own default.")
+        void applyAllToList() {
+            var outcome = rules.applyAll(Arrays.asList(1, 2, null, 4), i -> "no match for " + i);
+
+            assertThat(outcome).containsExactly("no match for 1", "4", "no match for null", "8");
+        }
+
+        @Test
+        @DisplayName("Batch: when the rules are applied to an array, then the results keep the order of the input.")
+        void applyAllToArray() {
+            var outcome = rules.applyAll(new Integer[]{1, 2, 3, 4}, i -> "-", String[]::new);
+
+            assertThat(outcome).containsExactly("-", "4", "-", "8");
+        }
+
+        @Test
+        @DisplayName("Batch: when the rules are applied in parallel, then the results equal the sequential results in the same order.")
+        void applyAllParallelGivesSameResultAsSequential() {
+            var values = IntStream.range(0, 10_000).boxed().toList();
+            var linkedValues = new LinkedList<>(values);
+
+            var sequential = rules.applyAll(values, i -> "-");
+
+            assertThat(rules.applyAllParallel(values, i -> "-")).isEqualTo(sequential);
+            assertThat(rules.applyAllParallel(linkedValues, i -> "-")).isEqualTo(sequential);
+            assertThat(rules.applyAllParallel(values.toArray(Integer[]::new), i -> "-", String[]::new))
+                    .containsExactlyElementsOf(sequential);
+        }
+
+        @Test
+        @DisplayName("Batch: when the rules are used as a Stream mapper or Collector, then every element is evaluated in encounter order.")
+        void rulesAsStreamMapperAndCollector() {
+            var mapped = Stream.of(1, 2, 3, 4)
+                    .parallel()
+                    .map(rules.asFunction(i -> "-"))
+                    .toList();
+            var collected = Stream.of(1, 2, 3, 4)
+                    .collect(rules.toList(i -> "-"));
+
+            assertThat(mapped).containsExactly("-", "4", "-", "8");
+            assertThat(collected).containsExactly("-", "4", "-", "8");
+        }
+
+        @Test
+        @DisplayName("Batch: when a matching function evaluates to null, then the null is kept in the results.")
+        void nullResultsAreKept() {
+            var nullRules = ConditionalRules.firstMatching(applyIf(isEven(), i -> (String) null));
+
+            assertThat(nullRules.applyAll(List.of(1, 2), i -> "-")).containsExactly("-", null);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for rules that dispatch on a key")
+    class KeyDispatch {
+
+        private final ConditionalKey<Integer, Integer> remainder = Conditional.keyOf(i -> i % 10);
+
+        @Test
+        @DisplayName("KeyDispatch: when a key rule matches, then the function belonging to that key is applied.")
+        void keyRuleMatches() {
+            var rules = ConditionalRules.firstMatching(IntStream.range(0, 10)
+                    .mapToObj(key -> applyIf(remainder.is(key), plus(key * 100)))
+                    .toArray(Conditional.ConditionalAction[]::new));
+
+            assertThat(rules.orElse(13, -1)).isEqualTo(313);
+            assertThat(rules.orElse(7, -1)).isEqualTo(707);
+        }
+
+        @Test
+        @DisplayName("KeyDispatch: when multiple key rules have the same key, then only the function of the first one is applied.")
+        void firstKeyRuleWins() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(remainder.is(1), plus(1)),
+                    applyIf(remainder.is(2), plus(2)),
+                    applyIf(remainder.is(2), plus(3)),
+                    applyIf(remainder.is(3), plus(4)));
+
+            assertThat(rules.orElse(2, -1)).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("KeyDispatch: when key rules are mixed with other conditions, then the declaration order decides which function is applied.")
+        void mixedRulesKeepDeclarationOrder() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(i -> i > 100, plus(1)),
+                    applyIf(remainder.is(1), plus(2)),
+                    applyIf(remainder.is(2), plus(3)),
+                    applyIf(remainder.is(3), plus(4)),
+                    applyIf(remainder.is(4), plus(5)),
+                    applyIf(isEven(), plus(6)),
+                    applyIf(remainder.is(6), plus(7)));
+
+            assertThat(rules.orElse(102, -1)).isEqualTo(103);
+            assertThat(rules.orElse(2, -1)).isEqualTo(5);
+            assertThat(rules.orElse(6, -1)).isEqualTo(12);
+            assertThat(rules.orElse(5, -1)).isEqualTo(-1);
+        }
+
+        @Test
+        @DisplayName("KeyDispatch: when the key extractor returns null, then a rule with a null key matches.")
+        void nullKeysAreSupported() {
+            ConditionalKey<String, String> firstWord = Conditional.keyOf(s -> s.isBlank() ? null : s.split(" ")[0]);
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(firstWord.is("hello"), s -> "greeting"),
+                    applyIf(firstWord.is("bye"), s -> "farewell"),
+                    applyIf(firstWord.is("thanks"), s -> "gratitude"),
+                    applyIf(firstWord.is(null), s -> "blank"));
+
+            assertThat(rules.orElse("hello world", "unknown")).isEqualTo("greeting");
+            assertThat(rules.orElse(" ", "unknown")).isEqualTo("blank");
+            assertThat(rules.orElse("what?", "unknown")).isEqualTo("unknown");
+        }
+
+        @Test
+        @DisplayName("KeyDispatch: when key rules are used in a Conditional, then they behave as any other condition.")
+        void keyRulesInConditional() {
+            var outcome = Conditional.of(12)
+                    .firstMatching(
+                            applyIf(remainder.is(1), plus(1)),
+                            applyIf(remainder.is(2), plus(2)))
+                    .orElse(-1);
+
+            assertThat(outcome).isEqualTo(14);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for rules that share a key")
+    class SharedFeatures {
+
+        private final AtomicInteger parses = new AtomicInteger();
+        private final ConditionalKey<String, Integer> length = Conditional.keyOf(s -> {
+            parses.incrementAndGet();
+            return s.length();
+        });
+
+        @Test
+        @DisplayName("SharedFeatures: when multiple rules use the same key, then the key is extracted once per evaluation.")
+        void keyIsExtractedOncePerEvaluation() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(length.matches(l -> l > 10), s -> "long"),
+                    applyIf(length.is(0), s -> "empty"),
+                    applyIf(length.matches(l -> l % 2 == 0), s -> "even"),
+                    applyIf(length.is(3), s -> "three"));
+
+            assertThat(rules.orElse("abc", "other")).isEqualTo("three");
+            assertThat(parses.get()).isEqualTo(1);
+            assertThat(rules.orElse("abcde", "other")).isEqualTo("other");
+            assertThat(parses.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("SharedFeatures: when the same key condition is declared twice, then it is evaluated once per evaluation.")
+        void identicalConditionsAreEvaluatedOnce() {
+            var tests = new AtomicInteger();
+            Predicate<Integer> isLong = l -> tests.incrementAndGet() > 0 && l > 10;
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(length.matches(isLong).and(s -> s.startsWith("a")), s -> "long a"),
+                    applyIf(length.matches(isLong), s -> "long"),
+                    applyIf(length.matches(isLong), s -> "unreachable"),
+                    applyIf(length.is(1), s -> "one"));
+
+            assertThat(rules.orElse("b", "other")).isEqualTo("one");
+            assertThat(tests.get()).isEqualTo(2);
+        }
+
+        @Test
+        @DisplayName("SharedFeatures: when shared keys are mixed with indexed key runs and other conditions, then the declaration order decides which function is applied.")
+        void sharedKeysKeepDeclarationOrder() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(s -> s.startsWith("x"), s -> "x"),
+                    applyIf(length.is(1), s -> "one"),
+                    applyIf(length.is(2), s -> "two"),
+                    applyIf(length.is(3), s -> "three"),
+                    applyIf(length.is(4), s -> "four"),
+                    applyIf(length.matches(l -> l > 4), s -> "many"));
+
+            assertThat(rules.orElse("xyz", "other")).isEqualTo("x");
+            assertThat(rules.orElse("ab", "other")).isEqualTo("two");
+            assertThat(rules.orElse("abcdef", "other")).isEqualTo("many");
+            assertThat(rules.orElse("", "other")).isEqualTo("other");
+            assertThat(parses.get()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("SharedFeatures: when rules that share a key are reordered by hits, then the key is still extracted once per evaluation.")
+        void reorderedRulesShareKeys() {
+            var rules = rulesOnLength().reorderedByHits();
+
+            assertThat(rules.orElse("abc", "other")).isEqualTo("three");
+            assertThat(parses.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("SharedFeatures: when rules that share a key are instrumented, then the key is still extracted once per evaluation.")
+        void instrumentedRulesShareKeys() {
+            var rules = rulesOnLength().instrumented("lengths");
+
+            assertThat(rules.orElse("abc", "other")).isEqualTo("three");
+            assertThat(parses.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("SharedFeatures: when more keys and key conditions are shared than fit in the evaluation fields, then each key is still extracted once.")
+        void manySharedKeysAreExtractedOnce() {
+            var keys = IntStream.range(0, 6)
+                    .mapToObj(key -> Conditional.<String, Integer>keyOf(s -> {
+                        parses.incrementAndGet();
+                        return s.length() + key;
+                    }))
+                    .toList();
+            var actions = new ArrayList<Conditional.ConditionalAction<String, String>>();
+
+            for (int i = 0; i < 70; i++) {
+                var limit = i;
+                actions.add(applyIf(keys.get(i % keys.size()).matches(l -> l > 100 + limit), s -> "long"));
+            }
+            actions.add(applyIf(keys.get(0).is(3), s -> "three"));
+
+            @SuppressWarnings("unchecked")
+            var rules = ConditionalRules.firstMatching(actions.toArray(Conditional.ConditionalAction[]::new));
+
+            assertThat(rules.orElse("abc", "other")).isEqualTo("three");
+            assertThat(parses.get()).isEqualTo(6);
+        }
+
+        private ConditionalRules<String, String> rulesOnLength() {
+            return ConditionalRules.firstMatching(
+                    applyIf(length.matches(l -> l > 10), s -> "long"),
+                    applyIf(length.is(0), s -> "empty"),
+                    applyIf(length.matches(l -> l % 2 == 0), s -> "even"),
+                    applyIf(length.is(3), s -> "three"));
+        }
+
+        @Test
+        @DisplayName("SharedFeatures: when a condition evaluates the same rules again, then each evaluation keeps its own extracted keys.")
+        void nestedEvaluationKeepsItsOwnKeys() {
+            var rules = new AtomicReference<ConditionalRules<String, String>>();
+            rules.set(ConditionalRules.firstMatching(
+                    applyIf(length.is(1), s -> "one"),
+                    applyIf(s -> s.length() > 1 && rules.get().orElse(s.substring(1), "").equals("one"), s -> "two"),
+                    applyIf(length.is(3), s -> "three")));
+
+            assertThat(rules.get().orElse("ab", "other")).isEqualTo("two");
+            assertThat(rules.get().orElse("abc", "other")).isEqualTo("three");
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for the allocation of evaluating compiled rules")
+    class Allocation {
+
+        @Test
+        @DisplayName("Allocation: when multiple rules share a key, then evaluating them does not allocate.")
+        void sharedKeysDoNotAllocate() {
+            var length = Conditional.<String, Integer>keyOf(String::length);
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(length.is(1), s -> "one"),
+                    applyIf(length.is(2), s -> "two"));
+
+            assertThat(allocatedBytesPerEvaluation(() -> rules.orElse("ab", "other"))).isZero();
+            assertThat(allocatedBytesPerEvaluation(() -> rules.orElse("abc", "other"))).isZero();
+        }
+
+        @Test
+        @DisplayName("Allocation: when multiple rules test the type of the value, then evaluating them does not allocate.")
+        void typeRulesDoNotAllocate() {
+            var rules = ConditionalRules.<Shape, String>firstMatching(
+                    applyIfInstanceOf(Circle.class, circle -> "circle"),
+                    applyIfInstanceOf(Square.class, square -> "square"));
+            Shape triangle = new Triangle();
+
+            assertThat(allocatedBytesPerEvaluation(() -> rules.orElse(triangle, "other"))).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for rules that dispatch on a range")
+    class RangeDispatch {
+
+        private final ConditionalRange<Integer, Integer> millis = Conditional.rangeOf(i -> i);
+
+        @Test
+        @DisplayName("RangeDispatch: when a value falls into a range, then the function belonging to that range is applied.")
+        void rangeRuleMatches() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(millis.lessThan(10), i -> "fast"),
+                    applyIf(millis.between(10, 100), i -> "normal"),
+                    applyIf(millis.between(100, 1000), i -> "slow"),
+                    applyIf(millis.atLeast(1000), i -> "timeout"));
+
+            assertThat(Stream.of(-5, 9, 10, 99, 100, 999, 1000, 5000).map(i -> rules.orElse(i, "none")))
+                    .containsExactly("fast", "fast", "normal", "normal", "slow", "slow", "timeout", "timeout");
+        }
+
+        @Test
+        @DisplayName("RangeDispatch: when bounds are inclusive or exclusive, then the boundary values are assigned accordingly.")
+        void inclusiveAndExclusiveBounds() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(millis.atMost(10), i -> "a"),
+                    applyIf(millis.between(10, false, 20, true), i -> "b"),
+                    applyIf(millis.between(20, false, 30, false), i -> "c"),
+                    applyIf(millis.greaterThan(30), i -> "d"));
+
+            assertThat(Stream.of(10, 11, 20, 21, 29, 30, 31).map(i -> rules.orElse(i, "none")))
+                    .containsExactly("a", "b", "b", "c", "c", "none", "d");
+        }
+
+        @Test
+        @DisplayName("RangeDispatch: when ranges leave gaps, then values in the gaps fall through to the next rules.")
+        void gapsFallThrough() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(millis.between(0, 10), i -> "a"),
+                    applyIf(millis.between(20, 30), i -> "b"),
+                    applyIf(millis.between(40, 50), i -> "c"),
+                    applyIf(millis.between(60, 70), i -> "d"),
+                    applyIf(isEven(), i -> "even"));
+
+            assertThat(Stream.of(-1, 5, 15, 16, 25, 55, 70).map(i -> rules.orElse(i, "none")))
+                    .containsExactly("none", "a", "none", "even", "b", "none", "even");
+        }
+
+        @Test
+        @DisplayName("RangeDispatch: when ranges overlap, then the first declared range wins.")
+        void overlappingRangesFollowDeclarationOrder() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(millis.between(50, 60), i -> "narrow"),
+                    applyIf(millis.between(0, 100), i -> "wide"),
+                    applyIf(millis.between(55, 58), i -> "unreachable"),
+                    applyIf(millis.atLeast(90), i -> "high"));
+
+            assertThat(Stream.of(55, 10, 59, 60, 95, 100).map(i -> rules.orElse(i, "none")))
+                    .containsExactly("narrow", "wide", "narrow", "wide", "wide", "high");
+        }
+
+        @Test
+        @DisplayName("RangeDispatch: when range rules are indexed, then the outcome equals a linear scan for every value.")
+        @SuppressWarnings("unchecked")
+        void indexedEqualsLinearScan() {
+            Conditional.ConditionalAction<Integer, Integer>[] actions = IntStream.range(0, 40)
+                    .mapToObj(i -> applyIf(switch (i % 4) {
+                        case 0 -> millis.lessThan(i * 3);
+                        case 1 -> millis.between(i, true, i * 2, true);
+                        case 2 -> millis.greaterThan(i * 5);
+                        default -> millis.between(i * 2, false, i * 4, false);
+                    }, plus(i)))
+                    .toArray(Conditional.ConditionalAction[]::new);
+            var indexed = ConditionalRules.firstMatching(actions);
+
+            IntStream.range(-10, 250).forEach(i -> assertThat(indexed.orElse(i, -1))
+                    .isEqualTo(Conditional.of(i).firstMatching(actions).orElse(-1)));
+        }
+
+        @Test
+        @DisplayName("RangeDispatch: when the lower bound is greater than the upper bound, then an IllegalArgumentException is thrown.")
+        void invalidRange() {
+            assertThrows(IllegalArgumentException.class, () -> millis.between(10, 5));
+        }
+
+        @Test
+        @DisplayName("RangeDispatch: when the key is null, then no range rule matches.")
+        void nullKeyNeverMatches() {
+            ConditionalRange<String, Integer> length = Conditional.rangeOf(s -> s.isEmpty() ? null : s.length());
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(length.lessThan(2), s -> "a"),
+                    applyIf(length.lessThan(4), s -> "b"),
+                    applyIf(length.lessThan(6), s -> "c"),
+                    applyIf(length.atLeast(6), s -> "d"));
+
+            assertThat(rules.orElse("", "none")).isEqualTo("none");
+            assertThat(rules.orElse("abc", "none")).isEqualTo("b");
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for rules that dispatch on a type")
+    class TypeDispatch {
+
+        @Test
+        @DisplayName("TypeDispatch: when a value is an instance of a rule's type, then the typed function of that rule is applied.")
+        void typeRuleMatches() {
+            ConditionalRules<Shape, String> rules = ConditionalRules.firstMatching(
+                    applyIfInstanceOf(Circle.class, circle -> "circle " + circle.radius()),
+                    applyIfInstanceOf(Square.class, square -> "square " + square.side()),
+                    applyIfInstanceOf(Rectangle.class, rectangle -> "rectangle " + rectangle.width()),
+                    applyIfInstanceOf(Triangle.class, triangle -> "triangle"));
+
+            assertThat(rules.orElse(new Circle(2), "none")).isEqualTo("circle 2");
+            assertThat(rules.orElse(new Rectangle(3, 4), "none")).isEqualTo("rectangle 3");
+            assertThat(rules.orElse(new Triangle(), "none")).isEqualTo("triangle");
+        }
+
+        @Test
+        @DisplayName("TypeDispatch: when a supertype rule is declared before a subtype rule, then the supertype rule wins.")
+        void firstMatchingTypeWins() {
+            ConditionalRules<Shape, String> rules = ConditionalRules.firstMatching(
+                    applyIfInstanceOf(Circle.class, circle -> "circle"),
+                    applyIfInstanceOf(Polygon.class, polygon -> "polygon"),
+                    applyIfInstanceOf(Square.class, square -> "square"),
+                    applyIfInstanceOf(Rectangle.class, rectangle -> "rectangle"));
+
+            assertThat(rules.orElse(new Square(1), "none")).isEqualTo("polygon");
+            assertThat(rules.orElse(new Circle(1), "none")).isEqualTo("circle");
+        }
+
+        @Test
+        @DisplayName("TypeDispatch: when no type rule matches, then the rules after the type rules are evaluated.")
+        void unmatchedTypesFallThrough() {
+            ConditionalRules<Shape, String> rules = ConditionalRules.firstMatching(
+                    applyIfInstanceOf(Circle.class, circle -> "circle"),
+                    applyIfInstanceOf(Square.class, square -> "square"),
+                    applyIfInstanceOf(Rectangle.class, rectangle -> "rectangle"),
+                    applyIfInstanceOf(Square.class, square -> "unreachable"),
+                    applyIf(shape -> shape instanceof Triangle, shape -> "any triangle"));
+
+            assertThat(rules.orElse(new Triangle(), "none")).isEqualTo("any triangle");
+            assertThat(rules.orElse(null, "none")).isEqualTo("none");
+        }
+
+        @Test
+        @DisplayName("TypeDispatch: when type rules are used in a Conditional, then they behave as any other condition.")
+        void typeRulesInConditional() {
+            var outcome = Conditional.<Shape>of(new Square(5))
+                    .firstMatching(
+                            applyIfInstanceOf(Circle.class, circle -> circle.radius()),
+                            applyIfInstanceOf(Square.class, square -> square.side()))
+                    .orElse(-1);
+
+            assertThat(outcome).isEqualTo(5);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for rules that are reordered by their hits")
+    class ReorderedByHits {
+
+        @Test
+        @DisplayName("ReorderedByHits: when mutually exclusive rules are reordered, then every value gets the same outcome as in declaration order.")
+        void reorderingKeepsOutcomes() {
+            var rules = mutuallyExclusiveRules(new AtomicInteger());
+            var reorderedRules = rules.reorderedByHits();
+
+            IntStream.range(0, 50_000)
+                    .forEach(i -> assertThat(reorderedRules.orElse(i, -1)).isEqualTo(rules.orElse(i, -1)));
+        }
+
+        @Test
+        @DisplayName("ReorderedByHits: when the last rule matches most often, then it is moved to the front and the other conditions are no longer evaluated for it.")
+        void frequentlyMatchingRuleIsMovedToTheFront() {
+            var firstConditionEvaluations = new AtomicInteger();
+            var rules = mutuallyExclusiveRules(firstConditionEvaluations).reorderedByHits();
+
+            IntStream.range(0, 100_000).forEach(i -> rules.orElse(3, -1));
+            firstConditionEvaluations.set(0);
+            var outcome = rules.orElse(3, -1);
+
+            assertThat(outcome).isEqualTo(6);
+            assertThat(firstConditionEvaluations.get()).isZero();
+        }
+
+        @Test
+        @DisplayName("ReorderedByHits: when the rules contain key rules and a map, then the outcome is the same as in declaration order.")
+        void reorderingWithKeyRulesAndMap() {
+            var remainder = Conditional.<Integer, Integer>keyOf(i -> i % 5);
+            var rules = ConditionalRules.firstMatching(
+                            applyIf(i -> i < 0, plus(-1)),
+                            applyIf(remainder.is(1), plus(1)),
+                            applyIf(remainder.is(2), plus(2)),
+                            applyIf(remainder.is(3), plus(3)),
+                            applyIf(remainder.is(4), plus(4)))
+                    .map(Object::toString);
+            var reorderedRules = rules.reorderedByHits();
+
+            IntStream.range(-10, 20_000)
+                    .forEach(i -> assertThat(reorderedRules.orElse(i, "-")).isEqualTo(rules.orElse(i, "-")));
+        }
+
+        private static ConditionalRules<Integer, Integer> mutuallyExclusiveRules(AtomicInteger firstConditionEvaluations) {
+            return ConditionalRules.firstMatching(
+                    applyIf(i -> {
+                        firstConditionEvaluations.incrementAndGet();
+                        return i % 4 == 0;
+                    }, plus(1)),
+                    applyIf(i -> i % 4 == 1, plus(2)),
+                    applyIf(i -> i % 4 == 2, timesTwo()),
+                    applyIf(i -> i % 4 == 3, plus(3)));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for instrumented rules")
+    class Instrumented {
+
+        @Test
+        @DisplayName("Instrumented: when instrumented rules are evaluated, then hits per rule and no-matches are counted.")
+        void hitsAndNoMatchesAreCounted() {
+            var rules = ConditionalRules.firstMatching(
+                            applyIf(isEven(), timesTwo()),
+                            applyIf(i -> i % 3 == 0, plus(1)))
+                    .instrumented("numbers");
+
+            IntStream.rangeClosed(1, 6).forEach(i -> rules.orElse(i, -1));
+            rules.orElse(null, -1);
+
+            var snapshot = rules.metrics().orElseThrow().snapshot();
+
+            assertThat(snapshot.name()).isEqualTo("numbers");
+            assertThat(snapshot.rules()).extracting(RuleMetrics.RuleSnapshot::hits).containsExactly(3L, 1L);
+            assertThat(snapshot.noMatches()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("Instrumented: when instrumented rules are evaluated, then every tested predicate and every applied action is recorded in a latency histogram.")
+        void latenciesAreRecorded() {
+            var rules = ConditionalRules.firstMatching(
+                            applyIf(isEven(), timesTwo()),
+                            applyIf(returnTrue(), plus(1)))
+                    .instrumented("numbers");
+
+            IntStream.rangeClosed(1, 10).forEach(i -> rules.orElse(i, -1));
+
+            var ruleSnapshots = rules.metrics().orElseThrow().snapshot().rules();
+
+            assertThat(Arrays.stream(ruleSnapshots.get(0).predicateLatencies()).sum()).isEqualTo(10);
+            assertThat(Arrays.stream(ruleSnapshots.get(1).predicateLatencies()).sum()).isEqualTo(5);
+            assertThat(Arrays.stream(ruleSnapshots.get(0).actionLatencies()).sum()).isEqualTo(5);
+            assertThat(Arrays.stream(ruleSnapshots.get(1).actionLatencies()).sum()).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("Instrumented: when rules are not instrumented, then no metrics are available.")
+        void rulesAreNotInstrumentedByDefault() {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()));
+
+            assertThat(rules.metrics()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Instrumented: when a Flight Recording is running, then a ConditionalMatch event is emitted per evaluation.")
+        void flightRecorderEventsAreEmitted() throws IOException {
+            var rules = ConditionalRules.firstMatching(applyIf(isEven(), timesTwo()))
+                    .instrumented("numbers");
+            var file = Files.createTempFile("conditional", ".jfr");
+
+            try (var recording = new Recording()) {
+                recording.enable("nl.kooi.ConditionalMatch");
+                recording.start();
+                rules.orElse(2, -1);
+                rules.orElse(3, -1);
+                recording.stop();
+                recording.dump(file);
+            }
+
+            var events = RecordingFile.readAllEvents(file);
+            Files.delete(file);
+
+            assertThat(events).extracting(event -> event.getString("rules")).containsExactly("numbers", "numbers");
+            assertThat(events).extracting(event -> event.getInt("matchedRule")).containsExactly(0, -1);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for evaluating conditions concurrently")
+    class Async {
+
+        private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+        @Test
+        @DisplayName("Async: when a later condition is known to hold before an earlier one, then the function of the earlier condition is still applied.")
+        void firstDeclaredConditionWins() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(slow(returnTrue(), 200), plus(1)),
+                    applyIf(returnTrue(), plus(2)));
+
+            assertThat(rules.orElseAsync(0, -1, TIMEOUT).join()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Async: when slow conditions are evaluated, then they run concurrently instead of one after the other.")
+        void conditionsAreEvaluatedConcurrently() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(slow(returnFalse(), 300), plus(1)),
+                    applyIf(slow(returnFalse(), 300), plus(2)),
+                    applyIf(slow(returnFalse(), 300), plus(3)),
+                    applyIf(slow(returnTrue(), 300), plus(4)));
+
+            var start = System.nanoTime();
+            var outcome = rules.orElseAsync(0, -1, TIMEOUT).join();
+
+            assertThat(outcome).isEqualTo(4);
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1_000));
+        }
+
+        @Test
+        @DisplayName("Async: when the outcome is known, then conditions that are still running are interrupted.")
+        void conditionsThatAreNoLongerNeededAreInterrupted() throws InterruptedException {
+            var started = new CountDownLatch(1);
+            var interrupted = new CountDownLatch(1);
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(i -> {
+                        try {
+                            return started.await(5, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            return false;
+                        }
+                    }, plus(1)),
+                    applyIf(i -> {
+                        started.countDown();
+
+                        try {
+                            Thread.sleep(10_000);
+                            return true;
+                        } catch (InterruptedException e) {
+                            interrupted.countDown();
+                            return false;
+                        }
+                    }, plus(2)));
+
+            assertThat(rules.orElseAsync(0, -1, TIMEOUT).join()).isEqualTo(1);
+            assertThat(interrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        }
+
+        @Test
+        @DisplayName("Async: when no condition matches, then the default value is returned.")
+        void noMatchReturnsDefault() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(returnFalse(), plus(1)),
+                    applyIf(slow(returnFalse(), 50), plus(2)));
+
+            assertThat(rules.orElseAsync(0, -1, TIMEOUT).join()).isEqualTo(-1);
+            assertThat(rules.orElseGetAsync(null, () -> -2, TIMEOUT).join()).isEqualTo(-2);
+        }
+
+        @Test
+        @DisplayName("Async: when the outcome is not known within the timeout, then the future completes with a TimeoutException.")
+        void timeoutCompletesExceptionally() {
+            var rules = ConditionalRules.firstMatching(applyIf(slow(returnTrue(), 10_000), plus(1)));
+
+            var outcome = rules.orElseAsync(0, -1, Duration.ofMillis(50));
+
+            var exception = assertThrows(CompletionException.class, outcome::join);
+            assertThat(exception.getCause()).isInstanceOf(TimeoutException.class);
+        }
+
+        @Test
+        @DisplayName("Async: when the first undecided condition throws, then the future completes with that exception.")
+        void failingConditionCompletesExceptionally() {
+            var rules = ConditionalRules.firstMatching(
+                    applyIf(returnFalse(), plus(1)),
+                    applyIf(i -> {
+                        throw new IllegalStateException("lookup failed");
+                    }, plus(2)),
+                    applyIf(returnTrue(), plus(3)));
+
+            var exception = assertThrows(CompletionException.class, () -> rules.orElseAsync(0, -1, TIMEOUT).join());
+            assertThat(exception.getCause()).isInstanceOf(IllegalStateException.class);
+        }
+
+        private static Predicate<Integer> slow(Predicate<Integer> predicate, long millis) {
+            return i -> {
+                try {
+                    Thread.sleep(millis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
+
+                return predicate.test(i);
+            };
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for wrong use of the compiled rules")
+    class ExceptionHandlingTests {
+
+        @Test
+        @DisplayName("Exception Handling: when a null action is passed to firstMatching, an NPE is thrown.")
+        void actionShouldNotBeNull() {
+            assertThrows(NullPointerException.class, () -> ConditionalRules.firstMatching(
+                    applyIf(returnTrue(), timesTwo()),
+                    null));
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when a null is passed to map, an NPE is thrown.")
+        void mapFunctionShouldNotBeNull() {
+            assertThrows(NullPointerException.class, () -> ConditionalRules.firstMatching(applyIf(returnTrue(), timesTwo()))
+                    .map(null));
+        }
+    }
+
+    private static UnaryOperator<Integer> timesTwo() {
+        return i -> i * 2;
+    }
+
+    private static Predicate<Integer> isEven() {
+        return i -> i % 2 == 0;
+    }
+
+    private static UnaryOperator<Integer> plus(int plus) {
+        return i -> i + plus;
+    }
+
+    private static Predicate<Integer> returnFalse() {
+        return i -> false;
+    }
+
+    private static Predicate<Integer> returnTrue() {
+        return i -> true;
+    }
+
+    private sealed interface Shape permits Circle, Polygon, Triangle {
+    }
+
+    private sealed interface Polygon extends Shape permits Rectangle, Square {
+    }
+
+    private record Circle(int radius) implements Shape {
+    }
+
+    private record Rectangle(int width, int height) implements Polygon {
+    }
+
+    private record Square(int side) implements Polygon {
+    }
+
+    private record Triangle() implements Shape {
+    }
+}
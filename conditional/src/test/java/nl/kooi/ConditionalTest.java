@@ -6,9 +6,11 @@ import org.junit.jupiter.api.Test;
 
 
 import java.util.Objects;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Predicate;
 import java.util.function.UnaryOperator;
 
+import static nl.kooi.Allocations.allocatedBytesPerEvaluation;
 import static nl.kooi.Conditional.applyIf;
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
@@ -319,10 +321,286 @@ class ConditionalTest {
         }
     }
 
+    @Nested
+    @DisplayName("Tests for conditionals with result and orElseThrowReused")
+    class result {
+
+        @Test
+        @DisplayName("result: when a condition matches, then a Matched result holds the outcome of the matching function.")
+        void matchedResult() {
+            var result = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .map(i -> "number " + i)
+                    .result();
+
+            assertThat(result).isEqualTo(new ConditionalResult.Matched<>("number 4"));
+        }
+
+        @Test
+        @DisplayName("result: when no condition matches, then the shared NoMatch result is returned.")
+        void noMatchResult() {
+            var result = conditionalThatMultipliesBy2WhenNumberIsEven(3).result();
+
+            assertThat(result).isSameAs(ConditionalResult.noMatch());
+            var outcome = switch (result) {
+                case ConditionalResult.Matched<Integer> matched -> "matched " + matched.value();
+                case ConditionalResult.NoMatch<Integer> noMatch -> "no match";
+            };
+
+            assertThat(outcome).isEqualTo("no match");
+        }
+
+        @Test
+        @DisplayName("result: when the matching function evaluates to null, then a Matched result holding null is returned.")
+        void matchedNullIsNotNoMatch() {
+            var result = Conditional.of(2)
+                    .firstMatching(applyIf(isEven(), i -> (Integer) null))
+                    .result();
+
+            assertThat(result).isEqualTo(new ConditionalResult.Matched<Integer>(null));
+        }
+
+        @Test
+        @DisplayName("orElseThrowReused: when no condition matches, then the given exception instance is thrown every time.")
+        void sameExceptionIsThrown() {
+            var noMatch = new StacklessException("no match");
+
+            var first = assertThrows(StacklessException.class,
+                    () -> conditionalThatMultipliesBy2WhenNumberIsEven(3).orElseThrowReused(noMatch));
+            var second = assertThrows(StacklessException.class,
+                    () -> conditionalThatMultipliesBy2WhenNumberIsEven(5).orElseThrowReused(noMatch));
+
+            assertThat(first).isSameAs(noMatch).isSameAs(second);
+            assertThat(noMatch.getStackTrace()).isEmpty();
+        }
+
+        @Test
+        @DisplayName("orElseThrowReused: when a condition matches, then the matching function is applied to the object.")
+        void matchDoesNotThrow() {
+            assertThat(conditionalThatMultipliesBy2WhenNumberIsEven(2).orElseThrowReused(new StacklessException("no match")))
+                    .isEqualTo(4);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for conditionals with flatMap")
+    class flatMap {
+
+        @Test
+        @DisplayName("flatMap: when the Conditional pipeline contains a flatMap, then nothing is evaluated until a terminal operation is called.")
+        void flatMapIsNotEvaluatedBeforeTerminalOperation() {
+            var evaluations = new AtomicInteger();
+
+            var conditional = Conditional.of(2)
+                    .firstMatching(applyIf(counting(evaluations, isEven()), timesTwo()))
+                    .flatMap(ConditionalTest::conditionalThatMultipliesBy2WhenNumberIsEven);
+
+            assertThat(evaluations.get()).isZero();
+            assertThat(conditional.orElse(0)).isEqualTo(8);
+            assertThat(evaluations.get()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("flatMap: when multiple flatMaps are chained, then the conditionals are evaluated in order.")
+        void chainedFlatMapsAreEvaluatedInOrder() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .flatMap(ConditionalTest::conditionalThatMultipliesBy2WhenNumberIsEven)
+                    .flatMap(ConditionalTest::conditionalThatMultipliesBy2WhenNumberIsEven)
+                    .flatMap(i -> Conditional.of(i).firstMatching(applyIf(returnTrue(), plus(1))))
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(17);
+        }
+
+        @Test
+        @DisplayName("flatMap: when tens of thousands of flatMaps are chained, then the chain is evaluated without running out of stack.")
+        void deepFlatMapChainIsEvaluated() {
+            var conditional = conditionalThatMultipliesBy2WhenNumberIsEven(2);
+
+            for (int i = 0; i < 20_000; i++) {
+                conditional = conditional.flatMap(number -> Conditional.of(number).firstMatching(applyIf(returnTrue(), plus(1))));
+            }
+
+            assertThat(conditional.orElse(0)).isEqualTo(20_004);
+        }
+
+        @Test
+        @DisplayName("flatMap: when a map follows a flatMap, then the map function is applied to the result of the flatMapped conditional.")
+        void mapAfterFlatMapIsApplied() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .flatMap(ConditionalTest::conditionalThatMultipliesBy2WhenNumberIsEven)
+                    .map(i -> String.format("And the number is: %d", i))
+                    .orElse("No outcome");
+
+            assertThat(outcome).isEqualTo("And the number is: 8");
+        }
+
+        @Test
+        @DisplayName("flatMap: when firstMatching follows a flatMap, then its conditions are applied to the value of the flatMapped conditional.")
+        void firstMatchingAfterFlatMapReplacesTheConditions() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .flatMap(ConditionalTest::conditionalThatMultipliesBy2WhenNumberIsEven)
+                    .firstMatching(applyIf(returnTrue(), plus(1)))
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(5);
+        }
+
+        @Test
+        @DisplayName("flatMap: when the flatMapped conditional does not match, then the default value is returned.")
+        void noMatchInFlatMappedConditionalReturnsDefault() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .flatMap(ConditionalTest::conditionalWithAllConditionsEvaluatingToFalse)
+                    .orElse(9);
+
+            assertThat(outcome).isEqualTo(9);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for conditionals with orWhen and firstWhen")
+    class orWhen {
+
+        @Test
+        @DisplayName("orWhen: when none of the current rules match, then the added rules are evaluated in order.")
+        void addedRulesAreEvaluatedAfterCurrentRules() {
+            var base = Conditional.of(3)
+                    .firstMatching(applyIf(isEven(), timesTwo()));
+
+            assertThat(base.orWhen(applyIf(returnFalse(), plus(1)), applyIf(returnTrue(), plus(2))).orElse(0)).isEqualTo(5);
+            assertThat(base.orElse(0)).isZero();
+        }
+
+        @Test
+        @DisplayName("firstWhen: when the added rules match, then they override the current rules.")
+        void firstWhenOverridesCurrentRules() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .orWhen(applyIf(returnTrue(), plus(1)))
+                    .firstWhen(applyIf(i -> i > 1, plus(100)))
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(102);
+        }
+
+        @Test
+        @DisplayName("orWhen: when chains are derived from the same base chain, then they do not affect each other or the base chain.")
+        void derivedChainsShareTheBaseChain() {
+            var evaluations = new AtomicInteger();
+            var base = Conditional.of(5)
+                    .firstMatching(applyIf(counting(evaluations, isEven()), timesTwo()));
+            var tenantA = base.orWhen(applyIf(returnTrue(), plus(1)));
+            var tenantB = base.orWhen(applyIf(returnTrue(), plus(2)));
+            var request = tenantA.firstWhen(applyIf(i -> i == 5, square()));
+
+            assertThat(tenantA.orElse(0)).isEqualTo(6);
+            assertThat(tenantB.orElse(0)).isEqualTo(7);
+            assertThat(request.orElse(0)).isEqualTo(25);
+            assertThat(base.orElse(0)).isZero();
+            assertThat(evaluations.get()).isEqualTo(3);
+        }
+
+        @Test
+        @DisplayName("orWhen: when a map precedes orWhen, then the map function is not applied to the results of the added rules.")
+        void mapOnlyAppliesToRulesBeforeIt() {
+            var chain = Conditional.of(3)
+                    .firstMatching(applyIf(isEven(), timesTwo()))
+                    .map(i -> "even " + i)
+                    .orWhen(applyIf(returnTrue(), i -> "odd " + i));
+
+            assertThat(chain.orElse("none")).isEqualTo("odd 3");
+            assertThat(chain.map(String::toUpperCase).orElse("none")).isEqualTo("ODD 3");
+        }
+
+        @Test
+        @DisplayName("orWhen: when rules are added to a conditional without rules, then only the added rules are evaluated.")
+        void orWhenWithoutRules() {
+            var outcome = Conditional.of(4)
+                    .orWhen(applyIf(isEven(), square()))
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(16);
+        }
+
+        @Test
+        @DisplayName("orWhen: when many rules are added one at a time, then the first matching rule still wins.")
+        void manyLayersKeepDeclarationOrder() {
+            var chain = Conditional.of(50).firstMatching(applyIf(returnFalse(), plus(0)));
+
+            for (int i = 1; i <= 100; i++) {
+                var limit = i;
+                chain = chain.orWhen(applyIf(value -> value < limit, plus(limit)));
+            }
+
+            assertThat(chain.orElse(0)).isEqualTo(101);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for allocation of the terminal operations")
+    class Allocation {
+
+        @Test
+        @DisplayName("Allocation: when a condition matches, then orElse, orElseGet and orElseThrow do not allocate.")
+        void terminalOperationsDoNotAllocateOnMatch() {
+            var conditional = conditionalWithMultipleConditionsThatEvaluateToTrue(0);
+
+            assertThat(allocatedBytesPerEvaluation(() -> conditional.orElse(9))).isZero();
+            assertThat(allocatedBytesPerEvaluation(() -> conditional.orElseGet(() -> 9))).isZero();
+            assertThat(allocatedBytesPerEvaluation(() -> conditional.orElseThrow(IllegalArgumentException::new))).isZero();
+        }
+
+        @Test
+        @DisplayName("Allocation: when no condition matches, then orElse and orElseGet do not allocate.")
+        void terminalOperationsDoNotAllocateOnNoMatch() {
+            var conditional = conditionalWithAllConditionsEvaluatingToFalse(0);
+
+            assertThat(allocatedBytesPerEvaluation(() -> conditional.orElse(9))).isZero();
+            assertThat(allocatedBytesPerEvaluation(() -> conditional.orElseGet(() -> 9))).isZero();
+        }
+
+        @Test
+        @DisplayName("Allocation: when no condition matches, then result and orElseThrowReused with a stackless exception do not allocate.")
+        void exceptionFreeTerminalsDoNotAllocateOnNoMatch() {
+            var conditional = conditionalWithAllConditionsEvaluatingToFalse(0);
+            var noMatch = new StacklessException("no match");
+
+            assertThat(allocatedBytesPerEvaluation(conditional::result)).isZero();
+            assertThat(allocatedBytesPerEvaluation(() -> {
+                try {
+                    conditional.orElseThrowReused(noMatch);
+                } catch (StacklessException e) {
+                    // expected on every evaluation
+                }
+            })).isZero();
+        }
+
+        @Test
+        @DisplayName("Allocation: when a null is passed as the object to be evaluated, then orElse does not allocate.")
+        void terminalOperationsDoNotAllocateOnNull() {
+            var conditional = conditionalThatMultipliesBy2WhenNumberIsEven(null);
+
+            assertThat(allocatedBytesPerEvaluation(() -> conditional.orElse(0))).isZero();
+        }
+    }
+
     @Nested
     @DisplayName("Tests for wrong use of the Conditional")
     class ExceptionHandlingTests {
 
+        @Test
+        @DisplayName("Exception Handling: when a null exception is passed to orElseThrowReused, an NPE is thrown.")
+        void reusedExceptionShouldNotBeNull() {
+            assertThrows(NullPointerException.class, () -> conditionalThatMultipliesBy2WhenNumberIsEven(3)
+                    .orElseThrowReused(null));
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when orWhen directly follows a flatMap, an IllegalStateException is thrown.")
+        void orWhenAfterFlatMapNeedsFirstMatching() {
+            assertThrows(IllegalStateException.class, () -> conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .flatMap(ConditionalTest::conditionalThatMultipliesBy2WhenNumberIsEven)
+                    .orWhen(applyIf(returnTrue(), plus(1))));
+        }
+
         @Test
         @DisplayName("Exception Handling: when a null is passed as the second parameter of a mapWhen, an NPE is thrown.")
         void predicateShouldNotBeNull() {
@@ -414,6 +692,13 @@ class ConditionalTest {
                 );
     }
 
+    private static Predicate<Integer> counting(AtomicInteger evaluations, Predicate<Integer> predicate) {
+        return i -> {
+            evaluations.incrementAndGet();
+            return predicate.test(i);
+        };
+    }
+
     private static UnaryOperator<Integer> timesTwo() {
         return i -> i * 2;
     }
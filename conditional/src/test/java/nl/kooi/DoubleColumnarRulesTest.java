@@ -0,0 +1,29 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static nl.kooi.DoubleConditional.DoubleConditionalAction;
+import static nl.kooi.DoubleConditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+class DoubleColumnarRulesTest {
+
+    @Test
+    @DisplayName("applyAll: when an array is classified column by column, then every element gets the same outcome as with firstMatching.")
+    void columnarOutcomeEqualsFirstMatching() {
+        DoubleConditionalAction[] actions = {
+                applyIf(d -> d < 0.25, d -> 0.0),
+                applyIf(d -> d < 0.75, Math::sqrt)
+        };
+        var values = new Random(42).doubles(5_000).toArray();
+
+        var outcome = DoubleColumnarRules.firstMatching(actions).applyAll(values, 1.0);
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(outcome[i]).isEqualTo(DoubleConditional.of(values[i]).firstMatching(actions).orElse(1.0));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.DoublePredicate;
+
+import static nl.kooi.DoubleConditional.applyIf;
+import static nl.kooi.DoubleConditional.applyIfToObj;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DoubleConditionalTest {
+
+    @Test
+    @DisplayName("orElse: when a condition matches and the pipeline contains a map, then the matching function is first applied and then the map function.")
+    void conditionalWithOneConditionThatEvaluatesToTrue_applyingMap() {
+        var outcome = DoubleConditional.of(2.5)
+                .firstMatching(
+                        applyIf(isNegative(), Math::abs),
+                        applyIf(isNegative().negate(), d -> d * 2))
+                .map(d -> d + 0.5)
+                .orElse(0.0);
+
+        assertThat(outcome).isEqualTo(5.5);
+    }
+
+    @Test
+    @DisplayName("orElseGet: when no condition matches, then the value evaluated from the default Supplier is returned.")
+    void conditionalWithOneConditionThatEvaluatesToFalse_orElseGet() {
+        var outcome = DoubleConditional.of(Double.NaN)
+                .firstMatching(applyIf(isNegative(), Math::abs))
+                .orElseGet(() -> -1.0);
+
+        assertThat(outcome).isEqualTo(-1.0);
+    }
+
+    @Test
+    @DisplayName("orElseThrow: when no condition matches, then the exception supplier is evaluated (throwing an exception).")
+    void conditionalWithOneConditionThatEvaluatesToFalse_orElseThrow() {
+        assertThrows(IllegalArgumentException.class, () -> DoubleConditional.of(1.0)
+                .firstMatching(applyIf(isNegative(), Math::abs))
+                .orElseThrow(IllegalArgumentException::new));
+    }
+
+    @Test
+    @DisplayName("orElse: when no condition matches in a conditional with an object result, then the default value is returned.")
+    void conditionalWithObjectResult() {
+        var outcome = DoubleConditional.of(Double.NaN)
+                .firstMatchingToObj(
+                        applyIfToObj(isNegative(), d -> "negative"),
+                        applyIfToObj(d -> d >= 0, d -> "positive"))
+                .orElse("not a number");
+
+        assertThat(outcome).isEqualTo("not a number");
+    }
+
+    private static DoublePredicate isNegative() {
+        return d -> d < 0;
+    }
+}
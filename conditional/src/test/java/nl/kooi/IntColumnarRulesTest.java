@@ -0,0 +1,66 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntPredicate;
+
+import static nl.kooi.IntConditional.IntConditionalAction;
+import static nl.kooi.IntConditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+class IntColumnarRulesTest {
+
+    private static final IntConditionalAction[] ACTIONS = {
+            applyIf(i -> i < 0, i -> -i),
+            applyIf(i -> i % 2 == 0, i -> i * 2),
+            applyIf(i -> i % 3 == 0, i -> i + 1),
+            applyIf(i -> i % 2 == 0, i -> 0)
+    };
+
+    @Test
+    @DisplayName("applyAll: when an array is classified column by column, then every element gets the same outcome as with firstMatching.")
+    void columnarOutcomeEqualsFirstMatching() {
+        var values = new Random(42).ints(10_007, -1_000, 1_000).toArray();
+
+        var outcome = IntColumnarRules.firstMatching(ACTIONS)
+                .map(i -> i + 7)
+                .applyAll(values, -1);
+
+        for (int i = 0; i < values.length; i++) {
+            var expected = IntConditional.of(values[i])
+                    .firstMatching(ACTIONS)
+                    .map(r -> r + 7)
+                    .orElse(-1);
+
+            assertThat(outcome[i]).isEqualTo(expected);
+        }
+    }
+
+    @Test
+    @DisplayName("applyAll: when an element is matched by a condition, then later conditions are not evaluated for that element.")
+    void laterConditionsOnlyRunOnUnmatchedElements() {
+        var evaluations = new AtomicInteger();
+        IntPredicate countingIsOdd = i -> {
+            evaluations.incrementAndGet();
+            return i % 2 != 0;
+        };
+
+        var outcome = IntColumnarRules.firstMatching(
+                        applyIf(i -> i % 2 == 0, i -> 0),
+                        applyIf(countingIsOdd, i -> 1))
+                .applyAll(new int[]{1, 2, 3, 4, 5, 6}, -1);
+
+        assertThat(outcome).containsExactly(1, 0, 1, 0, 1, 0);
+        assertThat(evaluations.get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("applyAll: when there are no rules or no values, then the defaults or an empty array are returned.")
+    void emptyRulesAndEmptyValues() {
+        assertThat(IntColumnarRules.firstMatching().applyAll(new int[]{1, 2, 3}, 9)).containsExactly(9, 9, 9);
+        assertThat(IntColumnarRules.firstMatching(ACTIONS).applyAll(new int[0], 9)).isEmpty();
+    }
+}
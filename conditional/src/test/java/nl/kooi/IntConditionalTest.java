@@ -0,0 +1,216 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+import static nl.kooi.Allocations.allocatedBytesPerEvaluation;
+import static nl.kooi.IntConditional.applyIf;
+import static nl.kooi.IntConditional.applyIfToObj;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class IntConditionalTest {
+
+    @Nested
+    @DisplayName("Tests for int conditionals with orElse")
+    class orElse {
+
+        @Test
+        @DisplayName("orElse: when a condition matches, then the matching function is applied to the int.")
+        void conditionalWithOneConditionThatEvaluatesToTrue() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("orElse: when no condition matches, then the default value is returned.")
+        void conditionalWithOneConditionThatEvaluatesToFalse() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(3)
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("orElse: when a condition matches and the pipeline contains maps, then the matching function is first applied and then the map functions in order.")
+        void conditionalWithOneConditionThatEvaluatesToTrue_applyingMap() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .map(plus(1))
+                    .map(timesTwo())
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(10);
+        }
+
+        @Test
+        @DisplayName("orElse: when no condition matches and the pipeline contains a map, then the default value is returned.")
+        void conditionalWithOneConditionThatEvaluatesToFalse_ignoringMap() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(3)
+                    .map(plus(1))
+                    .orElse(0);
+
+            assertThat(outcome).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("orElse: when multiple conditions would return true, then only the function belonging to the first condition that evaluated to true is applied.")
+        void conditionalWithMultipleConditionsThatEvaluateToTrue_functionOfFirstTrueIsEvaluated() {
+            var outcome = IntConditional.of(0)
+                    .firstMatching(
+                            applyIf(returnFalse(), plus(1)),
+                            applyIf(returnTrue(), plus(2)),
+                            applyIf(returnTrue(), plus(3)))
+                    .orElse(9);
+
+            assertThat(outcome).isEqualTo(2);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for int conditionals with orElseGet and orElseThrow")
+    class orElseGetAndOrElseThrow {
+
+        @Test
+        @DisplayName("orElseGet: when no condition matches, then the value evaluated from the default Supplier is returned.")
+        void conditionalWithOneConditionThatEvaluatesToFalse_orElseGet() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(3)
+                    .orElseGet(() -> 9);
+
+            assertThat(outcome).isEqualTo(9);
+        }
+
+        @Test
+        @DisplayName("orElseThrow: when a condition matches, then the matching function is applied to the int.")
+        void conditionalWithOneConditionThatEvaluatesToTrue_orElseThrow() {
+            var outcome = conditionalThatMultipliesBy2WhenNumberIsEven(2)
+                    .orElseThrow(IllegalArgumentException::new);
+
+            assertThat(outcome).isEqualTo(4);
+        }
+
+        @Test
+        @DisplayName("orElseThrow: when no condition matches, then the exception supplier is evaluated (throwing an exception).")
+        void conditionalWithOneConditionThatEvaluatesToFalse_orElseThrow() {
+            assertThrows(IllegalArgumentException.class, () -> conditionalThatMultipliesBy2WhenNumberIsEven(3)
+                    .orElseThrow(IllegalArgumentException::new));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for boxing of int conditionals")
+    class Boxing {
+
+        @Test
+        @DisplayName("Boxing: when values outside of the Integer cache are evaluated, then nothing is allocated.")
+        void evaluationDoesNotBox() {
+            var conditional = IntConditional.of(1_000_000)
+                    .firstMatching(
+                            applyIf(returnFalse(), plus(1)),
+                            applyIf(isEven(), timesTwo()))
+                    .map(plus(1_000_000));
+            Runnable evaluation = () -> conditional.orElse(-1);
+
+            assertThat(allocatedBytesPerEvaluation(evaluation)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for int conditionals with an object result")
+    class ToObj {
+
+        @Test
+        @DisplayName("ToObj: when a condition matches, then the matching function turns the int into an object and the map functions are applied in order.")
+        void matchingFunctionProducesObject() {
+            var outcome = IntConditional.of(404)
+                    .firstMatchingToObj(
+                            applyIfToObj(i -> i < 400, i -> Status.OK),
+                            applyIfToObj(i -> i < 500, i -> Status.CLIENT_ERROR),
+                            applyIfToObj(returnTrue(), i -> Status.SERVER_ERROR))
+                    .map(Status::name)
+                    .orElse("UNKNOWN");
+
+            assertThat(outcome).isEqualTo("CLIENT_ERROR");
+        }
+
+        @Test
+        @DisplayName("ToObj: when no condition matches, then the default value is returned.")
+        void noMatchReturnsDefault() {
+            var conditional = IntConditional.of(-1)
+                    .firstMatchingToObj(applyIfToObj(i -> i >= 0, i -> Status.OK));
+
+            assertThat(conditional.orElse(Status.SERVER_ERROR)).isEqualTo(Status.SERVER_ERROR);
+            assertThat(conditional.orElseGet(() -> Status.CLIENT_ERROR)).isEqualTo(Status.CLIENT_ERROR);
+            assertThrows(IllegalArgumentException.class, () -> conditional.orElseThrow(IllegalArgumentException::new));
+        }
+
+        @Test
+        @DisplayName("ToObj: when values outside of the Integer cache are classified, then nothing is allocated.")
+        void evaluationDoesNotBox() {
+            var conditional = IntConditional.of(1_000_000)
+                    .firstMatchingToObj(
+                            applyIfToObj(returnFalse(), i -> Status.OK),
+                            applyIfToObj(isEven(), i -> Status.SERVER_ERROR));
+            Runnable evaluation = () -> conditional.orElse(Status.OK).ordinal();
+
+            assertThat(allocatedBytesPerEvaluation(evaluation)).isZero();
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for wrong use of the IntConditional")
+    class ExceptionHandlingTests {
+
+        @Test
+        @DisplayName("Exception Handling: when a null is passed as a predicate or function, an NPE is thrown.")
+        void predicateAndFunctionShouldNotBeNull() {
+            assertThrows(NullPointerException.class, () -> applyIf(null, timesTwo()));
+            assertThrows(NullPointerException.class, () -> applyIf(isEven(), null));
+            assertThrows(NullPointerException.class, () -> applyIfToObj(isEven(), null));
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when a null is passed to map, orElseGet or orElseThrow, an NPE is thrown.")
+        void argumentsShouldNotBeNull() {
+            assertThrows(NullPointerException.class, () -> conditionalThatMultipliesBy2WhenNumberIsEven(2).map(null));
+            assertThrows(NullPointerException.class, () -> conditionalThatMultipliesBy2WhenNumberIsEven(3).orElseGet(null));
+            assertThrows(NullPointerException.class, () -> conditionalThatMultipliesBy2WhenNumberIsEven(3).orElseThrow(null));
+        }
+    }
+
+    private static IntConditional conditionalThatMultipliesBy2WhenNumberIsEven(int number) {
+        return IntConditional.of(number)
+                .firstMatching(
+                        applyIf(isEven(), timesTwo())
+                );
+    }
+
+    private static IntUnaryOperator timesTwo() {
+        return i -> i * 2;
+    }
+
+    private static IntPredicate isEven() {
+        return i -> i % 2 == 0;
+    }
+
+    private static IntUnaryOperator plus(int plus) {
+        return i -> i + plus;
+    }
+
+    private static IntPredicate returnFalse() {
+        return i -> false;
+    }
+
+    private static IntPredicate returnTrue() {
+        return i -> true;
+    }
+
+    private enum Status {
+        OK, CLIENT_ERROR, SERVER_ERROR
+    }
+}
@@ -0,0 +1,29 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static nl.kooi.LongConditional.LongConditionalAction;
+import static nl.kooi.LongConditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+
+class LongColumnarRulesTest {
+
+    @Test
+    @DisplayName("applyAll: when an array is classified column by column, then every element gets the same outcome as with firstMatching.")
+    void columnarOutcomeEqualsFirstMatching() {
+        LongConditionalAction[] actions = {
+                applyIf(l -> l > 1_000_000_000_000L, l -> l / 1_000),
+                applyIf(l -> l % 5 == 0, l -> l + 5)
+        };
+        var values = new Random(42).longs(5_000, 0, 2_000_000_000_000L).toArray();
+
+        var outcome = LongColumnarRules.firstMatching(actions).applyAll(values, -1L);
+
+        for (int i = 0; i < values.length; i++) {
+            assertThat(outcome[i]).isEqualTo(LongConditional.of(values[i]).firstMatching(actions).orElse(-1L));
+        }
+    }
+}
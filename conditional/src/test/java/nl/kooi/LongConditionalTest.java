@@ -0,0 +1,71 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.function.LongPredicate;
+import java.util.function.LongUnaryOperator;
+
+import static nl.kooi.LongConditional.applyIf;
+import static nl.kooi.LongConditional.applyIfToObj;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class LongConditionalTest {
+
+    @Test
+    @DisplayName("orElse: when a condition matches and the pipeline contains a map, then the matching function is first applied and then the map function.")
+    void conditionalWithOneConditionThatEvaluatesToTrue_applyingMap() {
+        var outcome = LongConditional.of(5_000_000_000L)
+                .firstMatching(
+                        applyIf(isNegative(), negate()),
+                        applyIf(isLargerThanInt(), l -> l / 1_000))
+                .map(l -> l + 1)
+                .orElse(0L);
+
+        assertThat(outcome).isEqualTo(5_000_001L);
+    }
+
+    @Test
+    @DisplayName("orElseGet: when no condition matches, then the value evaluated from the default Supplier is returned.")
+    void conditionalWithOneConditionThatEvaluatesToFalse_orElseGet() {
+        var outcome = LongConditional.of(42L)
+                .firstMatching(applyIf(isNegative(), negate()))
+                .orElseGet(() -> -1L);
+
+        assertThat(outcome).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("orElseThrow: when no condition matches, then the exception supplier is evaluated (throwing an exception).")
+    void conditionalWithOneConditionThatEvaluatesToFalse_orElseThrow() {
+        assertThrows(IllegalArgumentException.class, () -> LongConditional.of(42L)
+                .firstMatching(applyIf(isNegative(), negate()))
+                .orElseThrow(IllegalArgumentException::new));
+    }
+
+    @Test
+    @DisplayName("orElse: when a condition matches in a conditional with an object result, then the matching function turns the long into an object.")
+    void conditionalWithObjectResult() {
+        var outcome = LongConditional.of(5_000_000_000L)
+                .firstMatchingToObj(
+                        applyIfToObj(isNegative(), l -> "negative"),
+                        applyIfToObj(isLargerThanInt(), l -> "large"))
+                .map(String::toUpperCase)
+                .orElse("small");
+
+        assertThat(outcome).isEqualTo("LARGE");
+    }
+
+    private static LongPredicate isNegative() {
+        return l -> l < 0;
+    }
+
+    private static LongPredicate isLargerThanInt() {
+        return l -> l > Integer.MAX_VALUE;
+    }
+
+    private static LongUnaryOperator negate() {
+        return l -> -l;
+    }
+}
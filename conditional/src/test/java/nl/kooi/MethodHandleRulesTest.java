@@ -0,0 +1,87 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+import static nl.kooi.Conditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class MethodHandleRulesTest {
+
+    private static final ConditionalRules<Integer, String> RULES = ConditionalRules.firstMatching(
+                    applyIf(isEven(), timesTwo()),
+                    applyIf(i -> i % 3 == 0, plus(1)),
+                    applyIf(i -> i % 3 == 0, plus(2)))
+            .map(i -> i * 10)
+            .map(Object::toString);
+
+    private static final MethodHandleRules<Integer, String> COMPILED = RULES.compileToMethodHandles();
+
+    @Test
+    @DisplayName("orElse: when the rules are compiled to method handles, then every value gets the same outcome as with the compiled rules.")
+    void compiledOutcomeEqualsRules() {
+        IntStream.range(-50, 50)
+                .forEach(i -> assertThat(COMPILED.orElse(i, "-")).isEqualTo(RULES.orElse(i, "-")));
+    }
+
+    @Test
+    @DisplayName("orElse: when a null is passed as the object to be evaluated, then the default value is returned.")
+    void nullValueReturnsDefault() {
+        assertThat(COMPILED.orElse(null, "-")).isEqualTo("-");
+    }
+
+    @Test
+    @DisplayName("orElseGet: when a matching function evaluates to null, then the null is returned and the default Supplier is ignored.")
+    void matchingFunctionReturningNullIsKept() {
+        var supplierCalls = new AtomicInteger();
+        var compiled = ConditionalRules.firstMatching(applyIf(isEven(), i -> (String) null))
+                .compileToMethodHandles();
+
+        assertThat(compiled.orElseGet(2, () -> "" + supplierCalls.incrementAndGet())).isNull();
+        assertThat(compiled.orElseGet(3, () -> "" + supplierCalls.incrementAndGet())).isEqualTo("1");
+    }
+
+    @Test
+    @DisplayName("orElseThrow: when no condition matches, then the exception supplier is evaluated (throwing an exception).")
+    void noMatchThrows() {
+        assertThrows(IllegalArgumentException.class, () -> COMPILED.orElseThrow(1, IllegalArgumentException::new));
+    }
+
+    @Test
+    @DisplayName("Exception Handling: when a condition throws, then the exception is propagated unchanged.")
+    void exceptionsOfConditionsArePropagated() {
+        var compiled = ConditionalRules.<Integer, Integer>firstMatching(applyIf(i -> {
+            throw new IllegalStateException();
+        }, timesTwo())).compileToMethodHandles();
+
+        assertThrows(IllegalStateException.class, () -> compiled.orElse(1, 0));
+    }
+
+    @Test
+    @DisplayName("Exception Handling: when a handle of another type is wrapped, an IllegalArgumentException is thrown.")
+    void handleOfWrongTypeIsRejected() {
+        var identity = MethodHandles.identity(Object.class);
+
+        assertThrows(IllegalArgumentException.class, () -> new MethodHandleRules<Integer, Integer>(identity));
+        assertThrows(NullPointerException.class, () -> new MethodHandleRules<Integer, Integer>(null));
+    }
+
+    private static UnaryOperator<Integer> timesTwo() {
+        return i -> i * 2;
+    }
+
+    private static Predicate<Integer> isEven() {
+        return i -> i % 2 == 0;
+    }
+
+    private static UnaryOperator<Integer> plus(int plus) {
+        return i -> i + plus;
+    }
+}
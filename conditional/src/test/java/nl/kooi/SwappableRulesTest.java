@@ -0,0 +1,217 @@
+package nl.kooi;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Predicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.IntStream;
+
+import static nl.kooi.Conditional.applyIf;
+import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SwappableRulesTest {
+
+    private final RuleDefinitions<Integer, Integer> definitions = RuleDefinitions.<Integer, Integer>create()
+            .condition("even", isEven())
+            .condition("negative", i -> i < 0)
+            .action("double", i -> i * 2)
+            .action("negate", i -> -i);
+
+    @Nested
+    @DisplayName("Tests for swapping rules")
+    class Swapping {
+
+        @Test
+        @DisplayName("Swapping: when the rules are swapped, then the next evaluation uses the new rules.")
+        void swapReplacesRules() {
+            var first = ConditionalRules.firstMatching(applyIf(isEven(), plus(1)));
+            var second = ConditionalRules.firstMatching(applyIf(isEven(), plus(2)));
+            var rules = SwappableRules.of(first);
+
+            assertThat(rules.orElse(2, -1)).isEqualTo(3);
+            assertThat(rules.swap(second)).isSameAs(first);
+            assertThat(rules.orElse(2, -1)).isEqualTo(4);
+            assertThat(rules.current()).isSameAs(second);
+        }
+
+        @Test
+        @DisplayName("Swapping: when compareAndSwap expects rules that were already replaced, then nothing is swapped.")
+        void compareAndSwapDetectsConcurrentChange() {
+            var first = ConditionalRules.firstMatching(applyIf(isEven(), plus(1)));
+            var second = ConditionalRules.firstMatching(applyIf(isEven(), plus(2)));
+            var third = ConditionalRules.firstMatching(applyIf(isEven(), plus(3)));
+            var rules = SwappableRules.of(first);
+
+            assertThat(rules.compareAndSwap(first, second)).isTrue();
+            assertThat(rules.compareAndSwap(first, third)).isFalse();
+            assertThat(rules.current()).isSameAs(second);
+        }
+
+        @Test
+        @DisplayName("Swapping: when rules are swapped while other threads evaluate, then every evaluation sees one complete rule chain.")
+        void readersNeverSeeHalfBuiltChains() throws InterruptedException {
+            var rules = SwappableRules.of(chainOf(0));
+            var failed = new AtomicBoolean();
+            var running = new AtomicBoolean(true);
+            var readers = IntStream.range(0, 4)
+                    .mapToObj(i -> Thread.ofPlatform().start(() -> {
+                        while (running.get()) {
+                            var outcome = rules.orElse(7, -1);
+
+                            if (outcome % 8 != 7) {
+                                failed.set(true);
+                            }
+                        }
+                    }))
+                    .toList();
+
+            for (int generation = 1; generation <= 1_000; generation++) {
+                rules.swap(chainOf(generation));
+            }
+
+            running.set(false);
+
+            for (var reader : readers) {
+                reader.join();
+            }
+
+            assertThat(failed.get()).isFalse();
+        }
+
+        @SuppressWarnings("unchecked")
+        private ConditionalRules<Integer, Integer> chainOf(int generation) {
+            return ConditionalRules.firstMatching(IntStream.range(0, 8)
+                    .mapToObj(key -> applyIf((Integer i) -> i == key, plus(generation * 8)))
+                    .toArray(Conditional.ConditionalAction[]::new));
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for rules defined in a file")
+    class FileDefinitions {
+
+        @Test
+        @DisplayName("FileDefinitions: when a definition is parsed, then the rules follow the order of the lines.")
+        void rulesFollowLineOrder() {
+            var rules = definitions.parse(List.of(
+                    "# negative numbers first",
+                    "negative -> negate",
+                    "",
+                    "even -> double   # only positive even numbers"));
+
+            assertThat(rules.orElse(-2, 0)).isEqualTo(2);
+            assertThat(rules.orElse(4, 0)).isEqualTo(8);
+            assertThat(rules.orElse(3, 0)).isEqualTo(0);
+        }
+
+        @Test
+        @DisplayName("FileDefinitions: when a definition file is loaded, then its rules are compiled.")
+        void loadFromFile(@TempDir Path directory) throws IOException {
+            var file = Files.writeString(directory.resolve("rules.txt"), "even -> negate\n");
+
+            assertThat(definitions.load(file).orElse(4, 0)).isEqualTo(-4);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for watching a definition file")
+    class Watching {
+
+        @Test
+        @DisplayName("Watching: when the watched file changes, then the new rules are swapped in.")
+        void changedFileIsReloaded(@TempDir Path directory) throws IOException, InterruptedException {
+            var file = Files.writeString(directory.resolve("rules.txt"), "even -> double\n");
+            var rules = SwappableRules.of(ConditionalRules.<Integer, Integer>firstMatching());
+            var failures = new CopyOnWriteArrayList<Exception>();
+
+            try (var ignored = rules.watch(file, definitions, failures::add)) {
+                assertThat(rules.orElse(4, 0)).isEqualTo(8);
+
+                replace(file, "even -> negate\n");
+                awaitOutcome(rules, 4, -4);
+            }
+
+            assertThat(failures).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Watching: when the changed file is invalid, then the current rules are kept and the failure is reported.")
+        void invalidFileKeepsRules(@TempDir Path directory) throws IOException, InterruptedException {
+            var file = Files.writeString(directory.resolve("rules.txt"), "even -> double\n");
+            var rules = SwappableRules.of(ConditionalRules.<Integer, Integer>firstMatching());
+            var failures = new CopyOnWriteArrayList<Exception>();
+
+            try (var ignored = rules.watch(file, definitions, failures::add)) {
+                replace(file, "odd -> double\n");
+
+                for (int i = 0; i < 500 && failures.isEmpty(); i++) {
+                    Thread.sleep(10);
+                }
+            }
+
+            assertThat(failures).first().isInstanceOf(IllegalArgumentException.class);
+            assertThat(rules.orElse(4, 0)).isEqualTo(8);
+        }
+
+        private void replace(Path file, String definition) throws IOException {
+            var temporary = Files.writeString(file.resolveSibling(file.getFileName() + ".tmp"), definition);
+
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        }
+
+        private void awaitOutcome(SwappableRules<Integer, Integer> rules, int value, int expected) throws InterruptedException {
+            for (int i = 0; i < 500 && rules.orElse(value, 0) != expected; i++) {
+                Thread.sleep(10);
+            }
+
+            assertThat(rules.orElse(value, 0)).isEqualTo(expected);
+        }
+    }
+
+    @Nested
+    @DisplayName("Tests for wrong use of swappable rules")
+    class ExceptionHandlingTests {
+
+        @Test
+        @DisplayName("Exception Handling: when a definition refers to an unknown name, then an IllegalArgumentException is thrown.")
+        void unknownNameIsRejected() {
+            var exception = assertThrows(IllegalArgumentException.class,
+                    () -> definitions.parse(List.of("even -> double", "odd -> double")));
+
+            assertThat(exception).hasMessageContaining("Line 2").hasMessageContaining("'odd'");
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when a line has no arrow, then an IllegalArgumentException is thrown.")
+        void lineWithoutArrowIsRejected() {
+            assertThrows(IllegalArgumentException.class, () -> definitions.parse(List.of("even double")));
+        }
+
+        @Test
+        @DisplayName("Exception Handling: when null rules are swapped in, an NPE is thrown.")
+        void rulesShouldNotBeNull() {
+            var rules = SwappableRules.of(ConditionalRules.<Integer, Integer>firstMatching());
+
+            assertThrows(NullPointerException.class, () -> rules.swap(null));
+        }
+    }
+
+    private static UnaryOperator<Integer> plus(int plus) {
+        return i -> i + plus;
+    }
+
+    private static Predicate<Integer> isEven() {
+        return i -> i % 2 == 0;
+    }
+}